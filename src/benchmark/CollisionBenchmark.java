@@ -0,0 +1,212 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import engine.CollisionKernel;
+import engine.DrawManager.SpriteType;
+import engine.GameState;
+import engine.SpatialGrid;
+import entity.BulletStore;
+import entity.EnemyShip;
+import entity.Entity;
+import entity.Ship;
+
+/**
+ * Measures the collision checks of bullets against enemy ships three ways:
+ * checking every pair with the center distance test of GameScreen, with a
+ * SpatialGrid rebuilt every tick as GameScreen does for barriers and
+ * blocks, and with the bullets in a CollisionKernel tested against each
+ * enemy ship in one pass, as GameScreen does for the player ship. Bullets
+ * and enemy ships are scattered at random over a screen, and the time per
+ * bullet is printed for a doubling number of bullets: every way scales
+ * linearly with the bullets, the grid checking each one against the few
+ * enemy ships near it and the kernel testing several bullets per
+ * instruction. Every way finds the same hits.
+ *
+ * Usage: java -cp classes:res benchmark.CollisionBenchmark [bullets]
+ */
+public final class CollisionBenchmark {
+
+	/** Width of the screen. */
+	private static final int WIDTH = 600;
+	/** Height of the screen. */
+	private static final int HEIGHT = 650;
+	/** Cell size of the grid, as in GameScreen. */
+	private static final int CELL_SIZE = 32;
+	/** Number of enemy ships, more than in any formation. */
+	private static final int ENEMIES = 200;
+	/** Collision checks timed for each number of bullets. */
+	private static final int TICKS = 50;
+
+	/**
+	 * Private constructor.
+	 */
+	private CollisionBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args
+	 *            Largest number of bullets, halved down to 1/16 of it.
+	 */
+	public static void main(final String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		int maxBullets = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		GameState gameState = new GameState(1, 0, Ship.ShipType.StarDefender,
+				3, 0, 0, 0, "", 0, 0, 0, 0, 0);
+		SpatialGrid<EnemyShip> grid = new SpatialGrid<EnemyShip>(WIDTH,
+				HEIGHT, CELL_SIZE);
+		CollisionKernel kernel = new CollisionKernel();
+
+		// The first round only warms up.
+		for (int round = 0; round < 2; round++)
+			for (int bullets = Math.max(maxBullets / 16, 1);
+					bullets <= maxBullets; bullets *= 2) {
+				Random random = new Random(bullets);
+				BulletStore bulletStore = new BulletStore(bullets, bullets);
+				for (int i = 0; i < bullets; i++)
+					bulletStore.add(random.nextInt(WIDTH) + BulletStore.WIDTH / 2,
+							random.nextInt(HEIGHT), -5);
+				List<EnemyShip> enemies = new ArrayList<EnemyShip>();
+				for (int i = 0; i < ENEMIES; i++)
+					enemies.add(new EnemyShip(random.nextInt(WIDTH),
+							random.nextInt(HEIGHT), SpriteType.EnemyShipA1,
+							gameState));
+
+				long start = System.nanoTime();
+				long pairHits = 0;
+				for (int tick = 0; tick < TICKS; tick++)
+					pairHits += checkPairs(bulletStore, enemies);
+				long pairNanos = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				long gridHits = 0;
+				for (int tick = 0; tick < TICKS; tick++)
+					gridHits += checkGrid(grid, bulletStore, enemies);
+				long gridNanos = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				long kernelHits = 0;
+				for (int tick = 0; tick < TICKS; tick++)
+					kernelHits += checkKernel(kernel, bulletStore, enemies);
+				long kernelNanos = System.nanoTime() - start;
+
+				if (pairHits != gridHits || pairHits != kernelHits)
+					throw new IllegalStateException("Grid found " + gridHits
+							+ " and kernel " + kernelHits
+							+ " hits instead of " + pairHits + ".");
+				if (round > 0)
+					System.out.printf("bullets=%d enemies=%d pairs ns/bullet=%.1f"
+							+ " grid ns/bullet=%.1f kernel ns/bullet=%.1f"
+							+ " hits=%d%n", bullets, enemies.size(),
+							pairNanos / (double) TICKS / bullets,
+							gridNanos / (double) TICKS / bullets,
+							kernelNanos / (double) TICKS / bullets,
+							gridHits / TICKS);
+			}
+	}
+
+	/**
+	 * Checks every bullet against every enemy ship.
+	 *
+	 * @param bullets
+	 *            Bullets to check.
+	 * @param enemies
+	 *            Enemy ships to check.
+	 * @return Number of hits.
+	 */
+	private static long checkPairs(final BulletStore bullets,
+			final List<EnemyShip> enemies) {
+		long hits = 0;
+		for (int bullet = 0; bullet < bullets.size(); bullet++)
+			for (EnemyShip enemyShip : enemies)
+				if (checkCollision(bullets, bullet, enemyShip))
+					hits++;
+		return hits;
+	}
+
+	/**
+	 * Rebuilds the grid of enemy ships and checks every bullet against the
+	 * enemy ships near it.
+	 *
+	 * @param grid
+	 *            Grid to sort the enemy ships into.
+	 * @param bullets
+	 *            Bullets to check.
+	 * @param enemies
+	 *            Enemy ships to check.
+	 * @return Number of hits.
+	 */
+	private static long checkGrid(final SpatialGrid<EnemyShip> grid,
+			final BulletStore bullets, final List<EnemyShip> enemies) {
+		grid.clear();
+		for (EnemyShip enemyShip : enemies)
+			grid.add(enemyShip);
+		grid.build();
+
+		long hits = 0;
+		for (int bullet = 0; bullet < bullets.size(); bullet++) {
+			int near = grid.query(bullets.getPositionX(bullet),
+					bullets.getPositionY(bullet), BulletStore.WIDTH,
+					BulletStore.HEIGHT);
+			for (int i = 0; i < near; i++)
+				if (checkCollision(bullets, bullet, grid.result(i)))
+					hits++;
+		}
+		return hits;
+	}
+
+	/**
+	 * Adds every bullet to the kernel and tests them against each enemy
+	 * ship in turn.
+	 *
+	 * @param kernel
+	 *            Kernel to add the bullets to.
+	 * @param bullets
+	 *            Bullets to check.
+	 * @param enemies
+	 *            Enemy ships to check.
+	 * @return Number of hits.
+	 */
+	private static long checkKernel(final CollisionKernel kernel,
+			final BulletStore bullets, final List<EnemyShip> enemies) {
+		kernel.clear();
+		for (int bullet = 0; bullet < bullets.size(); bullet++)
+			kernel.add(bullets.getPositionX(bullet),
+					bullets.getPositionY(bullet), BulletStore.WIDTH,
+					BulletStore.HEIGHT);
+
+		long hits = 0;
+		for (EnemyShip enemyShip : enemies)
+			hits += kernel.test(enemyShip);
+		return hits;
+	}
+
+	/**
+	 * Checks if a bullet is colliding with an entity, as GameScreen does.
+	 *
+	 * @param bullets
+	 *            Store holding the bullet.
+	 * @param bullet
+	 *            Index of the bullet.
+	 * @param b
+	 *            Entity, the ship.
+	 * @return Result of the collision test.
+	 */
+	private static boolean checkCollision(final BulletStore bullets,
+			final int bullet, final Entity b) {
+		int centerAX = bullets.getPositionX(bullet) + BulletStore.WIDTH / 2;
+		int centerAY = bullets.getPositionY(bullet) + BulletStore.HEIGHT / 2;
+		int centerBX = b.getPositionX() + b.getWidth() / 2;
+		int centerBY = b.getPositionY() + b.getHeight() / 2;
+		int maxDistanceX = BulletStore.WIDTH / 2 + b.getWidth() / 2;
+		int maxDistanceY = BulletStore.HEIGHT / 2 + b.getHeight() / 2;
+		int distanceX = Math.abs(centerAX - centerBX);
+		int distanceY = Math.abs(centerAY - centerBY);
+
+		return distanceX < maxDistanceX && distanceY < maxDistanceY;
+	}
+}
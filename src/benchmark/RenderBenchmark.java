@@ -0,0 +1,253 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import engine.Core;
+import engine.DrawManager;
+import engine.DrawManager.SpriteType;
+import engine.GameState;
+import engine.HeadlessRenderer;
+import entity.Barrier;
+import entity.Blocker;
+import entity.BulletStore;
+import entity.EnemyShip;
+import entity.Ship;
+import entity.ShipFactory;
+import screen.Screen;
+
+/**
+ * Measures rendering throughput without a display. Draws a fixed game scene
+ * (enemy formation, ship, barriers, bullets, a rotating blocker and the HUD)
+ * through the DrawManager onto a headless renderer, and prints the frame
+ * rate and the frame hashes, which stay the same as long as the rendering
+ * does. With "twoplayer" the scene is drawn for both players and merged
+ * into the two player frame, the way TwoPlayerScreen does.
+ *
+ * Usage: java -cp classes:res benchmark.RenderBenchmark [frames] [nohash]
+ * [twoplayer]
+ * Add -Dinvaders.renderer=raster to measure the raster renderer, and
+ * -Dinvaders.renderBands=8 to rasterize two player frames in bands.
+ */
+public final class RenderBenchmark {
+
+	/** Width of the screen. */
+	private static final int WIDTH = 600;
+	/** Height of the screen. */
+	private static final int HEIGHT = 650;
+	/** Frames drawn before measuring. */
+	private static final int WARMUP_FRAMES = 500;
+	/** Bullets in the scene. */
+	private static final int BULLETS = 30;
+
+	/**
+	 * Private constructor.
+	 */
+	private RenderBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args
+	 *            Number of frames to measure, "nohash" to only count them
+	 *            and "twoplayer" to draw two player frames.
+	 */
+	public static void main(final String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		int frames = args.length > 0 && args[0].matches("\\d+")
+				? Integer.parseInt(args[0]) : 3000;
+		boolean hash = !Arrays.asList(args).contains("nohash");
+		boolean twoPlayer = Arrays.asList(args).contains("twoplayer");
+
+		DrawManager drawManager = Core.getDrawManager();
+		HeadlessRenderer renderer = new HeadlessRenderer(hash);
+		drawManager.setRenderer(renderer);
+
+		Screen screen = new Screen(WIDTH, HEIGHT, 60);
+		Screen twoPlayerScreen = new Screen(WIDTH * 2, HEIGHT, 120);
+		GameState gameState = new GameState(3, 0, Ship.ShipType.StarDefender,
+				3, 0, 0, 0, "", 0, 0, 0, 0, 0);
+		Ship ship = ShipFactory.create(Ship.ShipType.StarDefender,
+				WIDTH / 2, HEIGHT - 70);
+		Blocker blocker = new Blocker(100, 200, SpriteType.Blocker1, false);
+
+		List<EnemyShip> enemies = new ArrayList<EnemyShip>();
+		SpriteType[] rows = { SpriteType.EnemyShipA1, SpriteType.EnemyShipB1,
+				SpriteType.EnemyShipB1, SpriteType.EnemyShipC1,
+				SpriteType.EnemyShipC1 };
+		for (int row = 0; row < rows.length; row++)
+			for (int column = 0; column < 8; column++)
+				enemies.add(new EnemyShip(40 + column * 40, 100 + row * 40,
+						rows[row], gameState));
+
+		List<Barrier> barriers = new ArrayList<Barrier>();
+		for (int i = 0; i < 4; i++)
+			barriers.add(new Barrier(40 + i * 140, HEIGHT - 160));
+
+		BulletStore bullets = new BulletStore(BULLETS, BULLETS);
+
+		long startFrames = 0;
+		long start = 0;
+		for (int i = 0; i < WARMUP_FRAMES + frames; i++) {
+			if (i == WARMUP_FRAMES) {
+				startFrames = renderer.getFrames();
+				start = System.nanoTime();
+			}
+			int frame = i < WARMUP_FRAMES ? i : i - WARMUP_FRAMES;
+			if (twoPlayer)
+				drawTwoPlayerFrame(drawManager, screen, twoPlayerScreen,
+						ship, blocker, enemies, barriers, bullets, frame);
+			else
+				drawFrame(drawManager, screen, ship, blocker, enemies,
+						barriers, bullets, frame);
+		}
+		long elapsed = System.nanoTime() - start;
+		long drawn = renderer.getFrames() - startFrames;
+
+		System.out.printf("renderer=%s%s%s frames=%d fps=%.1f ms/frame=%.3f%n",
+				Core.isRasterRenderer() ? "raster" : "java2d",
+				Core.isLowResolution() ? " lowres" : "",
+				twoPlayer ? " twoplayer bands=" + Core.getRenderBands() : "",
+				drawn,
+				drawn * 1e9 / elapsed, elapsed / 1e6 / drawn);
+		if (hash)
+			System.out.printf("last frame hash=%08x sequence hash=%08x%n",
+					renderer.getFrameHash(), renderer.getSequenceHash());
+	}
+
+	/**
+	 * Draws one frame of the scene. Everything only depends on the frame
+	 * number, so every run draws the same frames.
+	 *
+	 * @param drawManager
+	 *            Draw manager to draw with.
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param ship
+	 *            Player ship.
+	 * @param blocker
+	 *            Rotating blocker.
+	 * @param enemies
+	 *            Enemy formation.
+	 * @param barriers
+	 *            Barriers.
+	 * @param bullets
+	 *            Store the bullets are placed in.
+	 * @param frame
+	 *            Frame number.
+	 */
+	private static void drawFrame(final DrawManager drawManager,
+			final Screen screen, final Ship ship, final Blocker blocker,
+			final List<EnemyShip> enemies, final List<Barrier> barriers,
+			final BulletStore bullets, final int frame) {
+		int offset = frame % 120 < 60 ? frame % 60 : 60 - frame % 60;
+
+		drawManager.initDrawing(screen);
+		drawManager.drawEntity(ship, ship.getPositionX() + offset - 30,
+				ship.getPositionY());
+		for (EnemyShip enemy : enemies)
+			drawManager.drawEntity(enemy, enemy.getPositionX() + offset,
+					enemy.getPositionY() + frame % 300 / 30);
+		for (Barrier barrier : barriers)
+			drawManager.drawEntity(barrier, barrier.getPositionX(),
+					barrier.getPositionY());
+		drawManager.drawBullets(placeBullets(bullets, frame));
+		drawManager.drawRotatedEntity(blocker,
+				blocker.getPositionX() + frame % 500, blocker.getPositionY(),
+				frame * 0.2);
+
+		drawManager.drawScore(screen, frame * 10);
+		drawManager.drawElapsedTime(screen, frame * 16);
+		drawManager.drawLives(screen, 3, Ship.ShipType.StarDefender);
+		drawManager.drawLevel(screen, 3);
+		drawManager.drawCombo(screen, frame % 20);
+		drawManager.drawHorizontalLine(screen, 39);
+		drawManager.completeDrawing(screen);
+	}
+
+	/**
+	 * Draws one two player frame of the scene: the scene of each player on
+	 * its thread buffer, then both merged into the frame. Both players are
+	 * drawn on the calling thread, one after the other.
+	 *
+	 * @param drawManager
+	 *            Draw manager to draw with.
+	 * @param screen
+	 *            Screen of one player.
+	 * @param twoPlayerScreen
+	 *            Screen of the merged frame.
+	 * @param ship
+	 *            Player ship.
+	 * @param blocker
+	 *            Rotating blocker.
+	 * @param enemies
+	 *            Enemy formation.
+	 * @param barriers
+	 *            Barriers.
+	 * @param bullets
+	 *            Store the bullets are placed in.
+	 * @param frame
+	 *            Frame number.
+	 */
+	private static void drawTwoPlayerFrame(final DrawManager drawManager,
+			final Screen screen, final Screen twoPlayerScreen,
+			final Ship ship, final Blocker blocker,
+			final List<EnemyShip> enemies, final List<Barrier> barriers,
+			final BulletStore bullets, final int frame) {
+		for (int player = 0; player < 2; player++) {
+			int offset = (frame + player * 30) % 120 < 60 ? (frame + player * 30) % 60
+					: 60 - (frame + player * 30) % 60;
+
+			drawManager.initThreadDrawing(screen, player);
+			drawManager.beginSpriteBatch(player);
+			drawManager.drawEntity(ship, ship.getPositionX() + offset - 30,
+					ship.getPositionY(), player);
+			for (EnemyShip enemy : enemies)
+				drawManager.drawEntity(enemy, enemy.getPositionX() + offset,
+						enemy.getPositionY() + frame % 300 / 30, player);
+			for (Barrier barrier : barriers)
+				drawManager.drawEntity(barrier, barrier.getPositionX(),
+						barrier.getPositionY(), player);
+			drawManager.drawBullets(placeBullets(bullets, frame), player);
+			drawManager.drawRotatedEntity(blocker,
+					blocker.getPositionX() + frame % 500,
+					blocker.getPositionY(), frame * 0.2, player);
+			drawManager.endSpriteBatch(player);
+
+			drawManager.drawScore(screen, frame * 10, player);
+			drawManager.drawElapsedTime(screen, frame * 16, player);
+			drawManager.drawLives(screen, 3, Ship.ShipType.StarDefender,
+					player);
+			drawManager.drawLevel(screen, 3, player);
+			drawManager.drawCombo(screen, frame % 20, player);
+			drawManager.drawHorizontalLine(screen, 39, player);
+			drawManager.flushBuffer(screen, player);
+		}
+
+		drawManager.initDrawing(twoPlayerScreen);
+		drawManager.mergeDrawing(twoPlayerScreen);
+		drawManager.drawVerticalLine(twoPlayerScreen);
+		drawManager.completeDrawing(twoPlayerScreen);
+	}
+
+	/**
+	 * Places the bullets of a frame in the store, falling down the screen
+	 * from their starting rows.
+	 *
+	 * @param bullets
+	 *            Store the bullets are placed in.
+	 * @param frame
+	 *            Frame number.
+	 * @return The store, holding the bullets of the frame.
+	 */
+	private static BulletStore placeBullets(final BulletStore bullets,
+			final int frame) {
+		bullets.clear();
+		for (int i = 0; i < BULLETS; i++)
+			bullets.add(20 + i * 19 + BulletStore.WIDTH / 2,
+					(120 + (i * 37) % 380 + frame * 4) % (HEIGHT - 80) + 40, 0);
+		return bullets;
+	}
+}
@@ -0,0 +1,95 @@
+package benchmark;
+
+import java.awt.event.KeyEvent;
+import java.util.Random;
+import java.util.logging.Level;
+
+import engine.Core;
+import engine.GameState;
+import engine.InputSource;
+import engine.Simulation;
+import entity.Ship;
+import entity.Wallet;
+import screen.Screen;
+
+/**
+ * Measures simulation throughput without a display. Plays whole games with
+ * a random bot on the headless simulation, and prints the ticks simulated
+ * per second with the outcome of every game, which stays the same for the
+ * same seed as long as the game logic does.
+ *
+ * Usage: java -cp classes:res benchmark.SimulationBenchmark [games] [seed]
+ */
+public final class SimulationBenchmark {
+
+	/** Maximum number of ticks of each game, about 28 minutes. */
+	private static final long MAX_TICKS = 100000;
+
+	/**
+	 * Bot holding the fire key and changing direction at random.
+	 */
+	private static final class RandomBot implements InputSource {
+		/** Random numbers of the bot, independent from the game ones. */
+		private final Random random;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param seed
+		 *            Seed of the moves of the bot.
+		 */
+		private RandomBot(final long seed) {
+			this.random = new Random(seed);
+		}
+
+		@Override
+		public boolean next(final boolean[] keys, final Screen screen) {
+			keys[KeyEvent.VK_SPACE] = true;
+			if (this.random.nextInt(20) == 0) {
+				int move = this.random.nextInt(3);
+				keys[KeyEvent.VK_LEFT] = move == 0;
+				keys[KeyEvent.VK_RIGHT] = move == 1;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Private constructor.
+	 */
+	private SimulationBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args
+	 *            Number of games to play and seed of the first one.
+	 */
+	public static void main(final String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		Core.getLogger().setLevel(Level.WARNING);
+
+		long totalTicks = 0;
+		long totalNanos = 0;
+		for (int game = 0; game < games; game++) {
+			Simulation simulation = new Simulation(
+					Ship.ShipType.StarDefender, new Wallet(0, 1, 1, 1, 1), 1,
+					new RandomBot(seed + game), MAX_TICKS);
+			long start = System.nanoTime();
+			GameState gameState = simulation.play(seed + game);
+			long nanos = System.nanoTime() - start;
+
+			totalTicks += simulation.getTicks();
+			totalNanos += nanos;
+			System.out.printf("seed=%d level=%d score=%d ticks=%d ticks/s=%.0f%n",
+					seed + game, gameState.getLevel() - 1,
+					gameState.getScore(), simulation.getTicks(),
+					simulation.getTicks() / (nanos / 1e9));
+		}
+		System.out.printf("games=%d ticks=%d ticks/s=%.0f%n", games,
+				totalTicks, totalTicks / (totalNanos / 1e9));
+	}
+}
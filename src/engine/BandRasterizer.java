@@ -0,0 +1,326 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Draw list of one integer RGB buffer, rasterized in horizontal bands on a
+ * fork/join pool once the list is complete.
+ *
+ * While the list is open, sprites are recorded as packed masks instead of
+ * being drawn. Closing it splits the buffer rows into bands of roughly equal
+ * work, estimated from how many lit pixels cover each row, and every band
+ * draws the whole list clipped to its rows, so overlapping sprites keep
+ * their order. Opaque images, such as the buffers of both players, can be
+ * added to the list as well and are copied under the sprites.
+ */
+final class BandRasterizer {
+
+	/** Pool shared by every rasterizer, one worker per core. */
+	private static final ForkJoinPool POOL = new ForkJoinPool(
+			Runtime.getRuntime().availableProcessors());
+	/** Initial capacity of the draw list. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Rows of the buffer drawn by one worker. */
+	private final class Band extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/** First row of the band. */
+		private int firstRow;
+		/** Row after the last one of the band. */
+		private int lastRow;
+
+		@Override
+		protected void compute() {
+			drawBand(this.firstRow, this.lastRow);
+		}
+	}
+
+	/** Every band of the frame, forked from a pool worker. */
+	private final class Bands extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		/** Number of bands to draw. */
+		private int count;
+
+		@Override
+		protected void compute() {
+			for (int i = 1; i < this.count; i++)
+				bands[i].fork();
+			bands[0].compute();
+			for (int i = 1; i < this.count; i++)
+				bands[i].join();
+		}
+	}
+
+	/** Band tasks, reused every frame. */
+	private final Band[] bands;
+	/** Root task of the frame, reused every frame. */
+	private final Bands frame;
+	/** Buffer being drawn, null while the list is closed. */
+	private BufferedImage target;
+
+	/** Masks of the recorded sprites. */
+	private long[][][] masks;
+	/** Widths of the recorded masks. */
+	private int[] widths;
+	/** Colors of the recorded sprites. */
+	private Color[] colors;
+	/** Coordinates for the left side of the recorded sprites. */
+	private int[] positionsX;
+	/** Coordinates for the upper side of the recorded sprites. */
+	private int[] positionsY;
+	/** Number of recorded sprites. */
+	private int count;
+
+	/** Images copied under the sprites. */
+	private final BufferedImage[] images;
+	/** Coordinates for the left side of the copied images. */
+	private final int[] imagesX;
+	/** Number of images to copy. */
+	private int imageCount;
+
+	/** Estimated work of each buffer row, reused every frame. */
+	private long[] rowCosts;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param bandCount
+	 *            Maximum number of bands the buffer is split into.
+	 * @param maxImages
+	 *            Maximum number of images copied under the sprites.
+	 */
+	BandRasterizer(final int bandCount, final int maxImages) {
+		this.bands = new Band[Math.max(bandCount, 1)];
+		for (int i = 0; i < this.bands.length; i++)
+			this.bands[i] = new Band();
+		this.frame = new Bands();
+
+		this.masks = new long[INITIAL_CAPACITY][][];
+		this.widths = new int[INITIAL_CAPACITY];
+		this.colors = new Color[INITIAL_CAPACITY];
+		this.positionsX = new int[INITIAL_CAPACITY];
+		this.positionsY = new int[INITIAL_CAPACITY];
+		this.images = new BufferedImage[Math.max(maxImages, 0)];
+		this.imagesX = new int[this.images.length];
+		this.rowCosts = new long[0];
+	}
+
+	/**
+	 * Opens the draw list of a buffer.
+	 *
+	 * @param buffer
+	 *            Buffer the list is drawn on.
+	 * @return False if the buffer can't be filled directly and has to be
+	 *         drawn through Java2D instead.
+	 */
+	boolean begin(final BufferedImage buffer) {
+		if (buffer == null || buffer.getType() != BufferedImage.TYPE_INT_RGB)
+			return false;
+		this.target = buffer;
+		this.count = 0;
+		this.imageCount = 0;
+		return true;
+	}
+
+	/**
+	 * Returns whether the draw list is open.
+	 *
+	 * @return True between begin and end.
+	 */
+	boolean isOpen() {
+		return this.target != null;
+	}
+
+	/**
+	 * Records a packed mask to draw.
+	 *
+	 * @param rows
+	 *            Mask to draw, one long array of row words per buffer row.
+	 * @param maskWidth
+	 *            Width in buffer pixels of the mask.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @param positionX
+	 *            Coordinates for the left side of the mask.
+	 * @param positionY
+	 *            Coordinates for the upper side of the mask.
+	 * @return False if the mask can't be recorded and has to be drawn
+	 *         through Java2D instead.
+	 */
+	boolean add(final long[][] rows, final int maskWidth, final Color color,
+			final int positionX, final int positionY) {
+		if (rows == null || color.getAlpha() != 255)
+			return false;
+		if (this.count == this.masks.length) {
+			int capacity = this.count * 2;
+			this.masks = Arrays.copyOf(this.masks, capacity);
+			this.widths = Arrays.copyOf(this.widths, capacity);
+			this.colors = Arrays.copyOf(this.colors, capacity);
+			this.positionsX = Arrays.copyOf(this.positionsX, capacity);
+			this.positionsY = Arrays.copyOf(this.positionsY, capacity);
+		}
+		this.masks[this.count] = rows;
+		this.widths[this.count] = maskWidth;
+		this.colors[this.count] = color;
+		this.positionsX[this.count] = positionX;
+		this.positionsY[this.count] = positionY;
+		this.count++;
+		return true;
+	}
+
+	/**
+	 * Records an opaque image to copy under the sprites.
+	 *
+	 * @param image
+	 *            Image to copy.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @return False if the image can't be copied directly and has to be
+	 *         drawn through Java2D instead.
+	 */
+	boolean addImage(final BufferedImage image, final int positionX) {
+		if (image == null || image.getType() != BufferedImage.TYPE_INT_RGB
+				|| this.imageCount == this.images.length)
+			return false;
+		this.images[this.imageCount] = image;
+		this.imagesX[this.imageCount] = positionX;
+		this.imageCount++;
+		return true;
+	}
+
+	/**
+	 * Closes the draw list and rasterizes it, one band per worker.
+	 */
+	void end() {
+		int height = this.target.getHeight();
+		int bandCount = split(height);
+
+		if (bandCount == 1) {
+			drawBand(0, height);
+		} else {
+			this.frame.reinitialize();
+			this.frame.count = bandCount;
+			for (int i = 0; i < bandCount; i++)
+				this.bands[i].reinitialize();
+			POOL.invoke(this.frame);
+		}
+
+		Arrays.fill(this.images, 0, this.imageCount, null);
+		this.target = null;
+	}
+
+	/**
+	 * Splits the buffer rows into bands of about the same work. Each row
+	 * costs one unit plus the width of every image and mask covering it.
+	 *
+	 * @param height
+	 *            Height of the buffer.
+	 * @return Number of bands used.
+	 */
+	private int split(final int height) {
+		if (this.bands.length == 1 || height < this.bands.length) {
+			this.bands[0].firstRow = 0;
+			this.bands[0].lastRow = height;
+			return 1;
+		}
+
+		if (this.rowCosts.length != height + 1)
+			this.rowCosts = new long[height + 1];
+		long[] costs = this.rowCosts;
+		Arrays.fill(costs, 0);
+		for (int i = 0; i < this.imageCount; i++) {
+			costs[0] += this.images[i].getWidth();
+			costs[Math.min(this.images[i].getHeight(), height)] -= this.images[i].getWidth();
+		}
+		for (int i = 0; i < this.count; i++) {
+			int top = Math.min(Math.max(this.positionsY[i], 0), height);
+			int bottom = Math.min(Math.max(this.positionsY[i]
+					+ this.masks[i].length, 0), height);
+			costs[top] += this.widths[i];
+			costs[bottom] -= this.widths[i];
+		}
+
+		long total = 0;
+		long running = 0;
+		for (int row = 0; row < height; row++) {
+			running += costs[row];
+			costs[row] = running + 1;
+			total += costs[row];
+		}
+
+		int band = 0;
+		int firstRow = 0;
+		long done = 0;
+		for (int row = 0; row < height && band < this.bands.length - 1; row++) {
+			done += costs[row];
+			if (done * this.bands.length >= total * (band + 1)) {
+				this.bands[band].firstRow = firstRow;
+				this.bands[band].lastRow = row + 1;
+				firstRow = row + 1;
+				band++;
+			}
+		}
+		this.bands[band].firstRow = firstRow;
+		this.bands[band].lastRow = height;
+		return band + 1;
+	}
+
+	/**
+	 * Draws the whole list clipped to some rows of the buffer.
+	 *
+	 * @param firstRow
+	 *            First row drawn.
+	 * @param lastRow
+	 *            Row after the last one drawn.
+	 */
+	private void drawBand(final int firstRow, final int lastRow) {
+		for (int i = 0; i < this.imageCount; i++)
+			copyRows(this.images[i], this.imagesX[i], firstRow, lastRow);
+
+		for (int i = 0; i < this.count; i++) {
+			int positionY = this.positionsY[i];
+			if (positionY >= lastRow
+					|| positionY + this.masks[i].length <= firstRow)
+				continue;
+			SpriteRaster.draw(this.target, this.masks[i], this.widths[i],
+					this.colors[i], this.positionsX[i], positionY, firstRow,
+					lastRow);
+		}
+	}
+
+	/**
+	 * Copies some rows of an image into the buffer.
+	 *
+	 * @param image
+	 *            Image to copy.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param firstRow
+	 *            First buffer row copied.
+	 * @param lastRow
+	 *            Buffer row after the last one copied.
+	 */
+	private void copyRows(final BufferedImage image, final int positionX,
+			final int firstRow, final int lastRow) {
+		int[] source = ((DataBufferInt) image.getRaster().getDataBuffer())
+				.getData();
+		int[] pixels = ((DataBufferInt) this.target.getRaster()
+				.getDataBuffer()).getData();
+		int sourceWidth = image.getWidth();
+		int width = this.target.getWidth();
+
+		int from = Math.max(0, -positionX);
+		int to = Math.min(sourceWidth, width - positionX);
+		if (from >= to)
+			return;
+		int last = Math.min(lastRow, image.getHeight());
+		for (int row = firstRow; row < last; row++)
+			System.arraycopy(source, row * sourceWidth + from, pixels,
+					row * width + positionX + from, to - from);
+	}
+}
@@ -0,0 +1,164 @@
+package engine;
+
+import java.util.Arrays;
+
+import entity.Entity;
+
+/**
+ * Boxes of many entities kept as flat arrays of centers and half sizes,
+ * tested against one box at a time in a single pass.
+ *
+ * The test gives the same result as checking each entity with the center
+ * distance test of GameScreen, but its loop has no branches, calls or
+ * object loads, so the JIT compiles it to SIMD instructions that test
+ * several boxes at once. Boxes are added in order every tick, and the
+ * arrays are only reallocated when they outgrow their capacity.
+ */
+public final class CollisionKernel {
+
+	/** Initial capacity of the arrays. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Center of each box in the x-axis. */
+	private int[] centerX;
+	/** Center of each box in the y-axis. */
+	private int[] centerY;
+	/** Half of the width of each box. */
+	private int[] halfWidth;
+	/** Half of the height of each box. */
+	private int[] halfHeight;
+	/** 1 for each box hit by the last test, 0 for the others. */
+	private int[] hits;
+	/** Number of boxes. */
+	private int size;
+
+	/**
+	 * Constructor.
+	 */
+	public CollisionKernel() {
+		this.centerX = new int[INITIAL_CAPACITY];
+		this.centerY = new int[INITIAL_CAPACITY];
+		this.halfWidth = new int[INITIAL_CAPACITY];
+		this.halfHeight = new int[INITIAL_CAPACITY];
+		this.hits = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Removes every box.
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Adds the box of an entity at its current position.
+	 *
+	 * @param entity
+	 *            Entity to add.
+	 * @return Index of its box, in the order boxes were added.
+	 */
+	public int add(final Entity entity) {
+		return add(entity.getPositionX(), entity.getPositionY(),
+				entity.getWidth(), entity.getHeight());
+	}
+
+	/**
+	 * Adds a box.
+	 *
+	 * @param positionX
+	 *            Position of the box in the x-axis.
+	 * @param positionY
+	 *            Position of the box in the y-axis.
+	 * @param width
+	 *            Width of the box.
+	 * @param height
+	 *            Height of the box.
+	 * @return Index of the box, in the order boxes were added.
+	 */
+	public int add(final int positionX, final int positionY, final int width,
+			final int height) {
+		if (this.size == this.centerX.length) {
+			int capacity = this.size * 2;
+			this.centerX = Arrays.copyOf(this.centerX, capacity);
+			this.centerY = Arrays.copyOf(this.centerY, capacity);
+			this.halfWidth = Arrays.copyOf(this.halfWidth, capacity);
+			this.halfHeight = Arrays.copyOf(this.halfHeight, capacity);
+			this.hits = Arrays.copyOf(this.hits, capacity);
+		}
+		this.halfWidth[this.size] = width / 2;
+		this.halfHeight[this.size] = height / 2;
+		this.centerX[this.size] = positionX + width / 2;
+		this.centerY[this.size] = positionY + height / 2;
+		this.hits[this.size] = 0;
+		return this.size++;
+	}
+
+	/**
+	 * Getter for the number of boxes.
+	 *
+	 * @return Number of boxes added since the last clear.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Tests every box against the box of an entity.
+	 *
+	 * @param entity
+	 *            Entity to test, e.g. the player ship.
+	 * @return Number of boxes colliding with it, read with hit.
+	 */
+	public int test(final Entity entity) {
+		return test(entity.getPositionX() + entity.getWidth() / 2,
+				entity.getPositionY() + entity.getHeight() / 2,
+				entity.getWidth() / 2, entity.getHeight() / 2);
+	}
+
+	/**
+	 * Tests every box against a box. Two boxes collide when the distance
+	 * between their centers is below the sum of their half sizes on both
+	 * axes, which is when both differences are negative.
+	 *
+	 * @param testCenterX
+	 *            Center of the box in the x-axis.
+	 * @param testCenterY
+	 *            Center of the box in the y-axis.
+	 * @param testHalfWidth
+	 *            Half of the width of the box.
+	 * @param testHalfHeight
+	 *            Half of the height of the box.
+	 * @return Number of boxes colliding with it, read with hit.
+	 */
+	public int test(final int testCenterX, final int testCenterY,
+			final int testHalfWidth, final int testHalfHeight) {
+		final int[] centerX = this.centerX;
+		final int[] centerY = this.centerY;
+		final int[] halfWidth = this.halfWidth;
+		final int[] halfHeight = this.halfHeight;
+		final int[] hits = this.hits;
+		final int size = this.size;
+
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			int outsideX = Math.abs(centerX[i] - testCenterX) - halfWidth[i]
+					- testHalfWidth;
+			int outsideY = Math.abs(centerY[i] - testCenterY) - halfHeight[i]
+					- testHalfHeight;
+			hits[i] = (outsideX & outsideY) >>> 31;
+			count += hits[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Returns whether a box was hit by the last test.
+	 *
+	 * @param index
+	 *            Index of the box.
+	 * @return True if the box collides with the box last tested.
+	 */
+	public boolean hit(final int index) {
+		return this.hits[index] != 0;
+	}
+}
@@ -1,13 +1,19 @@
 package engine;
 
 /**
- * Imposes a cooldown period between two actions.
+ * Imposes a cooldown period between two actions. Time is read from the
+ * game clock, so cooldowns advance with the ticks of the game.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
  */
 public class Cooldown {
 
+	/** Beginning time of a cooldown that was never started. */
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	/** Clock the time is read from. */
+	private final GameClock clock;
 	/** Cooldown duration. */
 	private int milliseconds;
 	/** Maximum difference between durations. */
@@ -27,10 +33,11 @@ public class Cooldown {
 	 *            Time until cooldown period is finished.
 	 */
 	protected Cooldown(final int milliseconds) {
+		this.clock = GameClock.getInstance();
 		this.milliseconds = milliseconds;
 		this.variance = 0;
 		this.duration = milliseconds;
-		this.time = 0;
+		this.time = NOT_STARTED;
 	}
 
 	/**
@@ -43,9 +50,10 @@ public class Cooldown {
 	 *            Variance in the cooldown period.
 	 */
 	protected Cooldown(final int milliseconds, final int variance) {
+		this.clock = GameClock.getInstance();
 		this.milliseconds = milliseconds;
 		this.variance = variance;
-		this.time = 0;
+		this.time = NOT_STARTED;
 	}
 
 	/**
@@ -55,8 +63,8 @@ public class Cooldown {
 	 */
 
 	public final boolean checkFinished() {
-		if ((this.time == 0)
-				|| this.time + this.duration < System.currentTimeMillis())
+		if ((this.time == NOT_STARTED)
+				|| this.time + this.duration < this.clock.now())
 			return true;
 		return false;
 	}
@@ -68,8 +76,8 @@ public class Cooldown {
 	 */
 
 	public final boolean checkAlert() {
-		if ((this.time > 0)
-				&& this.time + this.duration - this.alert <= System.currentTimeMillis())
+		if ((this.time != NOT_STARTED)
+				&& this.time + this.duration - this.alert <= this.clock.now())
 			return true;
 		return false;
 	}
@@ -80,14 +88,14 @@ public class Cooldown {
 	 * @return Alert animation frame number.
 	 */
 	public final int checkAlertAnimation() {
-		if ((this.time > 0)
-				&& this.time + this.duration - (this.alert / 3) <= System.currentTimeMillis())
+		if (this.time == NOT_STARTED)
+			return 0;
+		long now = this.clock.now();
+		if (this.time + this.duration - (this.alert / 3) <= now)
 			return 3;
-		else if ((this.time > 0)
-				&& this.time + this.duration - 2 * (this.alert / 3) <= System.currentTimeMillis())
+		else if (this.time + this.duration - 2 * (this.alert / 3) <= now)
 			return 2;
-		else if ((this.time > 0)
-				&& this.time + this.duration - this.alert <= System.currentTimeMillis())
+		else if (this.time + this.duration - this.alert <= now)
 			return 1;
 		return 0;
 	}
@@ -96,10 +104,10 @@ public class Cooldown {
 	 * Restarts the cooldown.
 	 */
 	public final void reset() {
-		this.time = System.currentTimeMillis();
+		this.time = this.clock.now();
 		if (this.variance != 0)
 			this.duration = (this.milliseconds - this.variance)
-					+ (int) (Math.random()
+					+ (int) (Core.getRandom().nextDouble()
 							* (this.milliseconds + this.variance));
 	}
 }
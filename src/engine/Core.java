@@ -1,12 +1,15 @@
 package engine;
 
+import java.awt.GraphicsEnvironment;
 import java.io.IOException;
+import java.util.Random;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import entity.EntityPools;
 import entity.Ship;
 import entity.Wallet;
 import screen.*;
@@ -25,6 +28,38 @@ public final class Core {
 	private static final int HEIGHT = 650;
 	/** Max fps of current screen. */
 	private static final int FPS = 60;
+	/** Reused frame buffers per screen, 2 for double and 3 for triple buffering. */
+	private static final int FRAME_BUFFERS = Integer.getInteger("invaders.buffers", 3);
+	/** Sprite renderer, "java2d" or "raster" for the int[] software renderer. */
+	private static final String RENDERER = System.getProperty("invaders.renderer", "java2d");
+	/** Draws the game at half resolution and upscales each frame once. */
+	private static final boolean LOW_RESOLUTION = Boolean.getBoolean("invaders.lowres");
+	/** Bands the raster renderer splits two player frames into, 0 for none. */
+	private static final int RENDER_BANDS = Integer.getInteger("invaders.renderBands", 0);
+	/** Most ticks between two drawn frames when drawing can't keep up, 1 to draw every frame. */
+	private static final int MAX_DRAW_INTERVAL = Integer.getInteger("invaders.maxDrawInterval", 6);
+	/** Bullets each game screen has room for before its bullet store grows. */
+	private static final int BULLET_CAPACITY = Integer.getInteger("invaders.bulletCapacity", 64);
+	/** Most bullets on a game screen at once, further shots are dropped. */
+	private static final int BULLET_LIMIT = Integer.getInteger("invaders.bulletLimit", 1024);
+	/** CSV file frame profiles are appended to, null for none. */
+	private static final String PROFILE_CSV = System.getProperty("invaders.profileCsv");
+	/** Records the time taken by each phase of the frames. */
+	private static final boolean PROFILE = Boolean.getBoolean("invaders.profile") || PROFILE_CSV != null;
+	/** Rotation steps in a full turn for pre-rotated sprites. */
+	private static final int ROTATION_STEPS = Integer.getInteger("invaders.rotationSteps", 256);
+	/** Most bytes taken by pre-rotated sprite frames, a full turn of both blockers by default. */
+	private static final long ROTATION_CACHE_BYTES = Long.getLong("invaders.rotationCacheBytes", 16L << 20);
+	/** Seed of the random numbers of each game, null for a new one every game. */
+	private static final Long SEED = Long.getLong("invaders.seed");
+	/** Replay file each game is recorded to, null for none. */
+	private static final String RECORD = System.getProperty("invaders.record");
+	/** Replay file played back instead of running the menus, null for none. */
+	private static final String REPLAY = System.getProperty("invaders.replay");
+	/** Plays the replay back as fast as possible instead of in real time. */
+	private static final boolean REPLAY_FAST = Boolean.getBoolean("invaders.replayFast");
+	/** Random numbers of the game, reseeded at the start of each game. */
+	private static final Random RANDOM = new Random();
 
 	/** Base ship type. */
 	public static Ship.ShipType BASE_SHIP = Ship.ShipType.StarDefender;
@@ -45,6 +80,10 @@ public final class Core {
 	private static ConsoleHandler consoleHandler;
 	/** Initialize singleton instance of SoundManager and return that */
 	private static SoundManager soundManager;
+	/** Replay being played back, null if none. */
+	private static ReplayPlayer replayPlayer;
+	/** If screens are simulated without drawing, sound or waiting. */
+	private static volatile boolean simulating;
 
 	private static long startTime, endTime;
 
@@ -76,6 +115,13 @@ public final class Core {
 			e.printStackTrace();
 		}
 
+		if (REPLAY != null) {
+			replay(REPLAY);
+			fileHandler.flush();
+			fileHandler.close();
+			System.exit(0);
+		}
+
 		frame = new Frame(WIDTH, HEIGHT);
 		DrawManager.getInstance().setFrame(frame);
 		int width = frame.getWidth();
@@ -107,35 +153,10 @@ public final class Core {
 				break;
 			case 2:
 				// Game & score.
-				do {
-					// One extra live every few levels.
-					startTime = System.currentTimeMillis();
-					boolean bonusLife = gameState.getLevel()
-							% EXTRA_LIFE_FRECUENCY == 0
-							&& gameState.getLivesRemaining() < MAX_LIVES;
-					LOGGER.info("difficulty is " + DifficultySetting);
-					//add variation
-					gameSetting = gameSetting.LevelSettings(gameSetting.getFormationWidth(),
-							gameSetting.getFormationHeight(),
-							gameSetting.getBaseSpeed(),
-							gameSetting.getShootingFrecuency(),
-							gameState.getLevel(), DifficultySetting);
-
-					currentScreen = new GameScreen(gameState,
-							gameSetting,
-							bonusLife, width, height, FPS, wallet);
-					LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
-
-							+ " game screen at " + FPS + " fps.");
-					frame.setScreen(currentScreen);
-					LOGGER.info("Closing game screen.");
-
-					gameState = ((GameScreen) currentScreen).getGameState();
-
-					gameState = new GameState(gameState, gameState.getLevel() + 1);
-					endTime = System.currentTimeMillis();
-					achievementManager.updatePlaying(gameState.getMaxCombo(),(int) (endTime - startTime) / 1000, MAX_LIVES, gameState.getLivesRemaining(), gameState.getLevel()-1);
-				} while (gameState.getLivesRemaining() > 0);
+				startGame(width, height, wallet);
+				gameState = playLevels(gameState, gameSetting, width, height,
+						FPS, wallet, achievementManager);
+				getInputManager().stopRecording();
 				achievementManager.updatePlayed(gameState.getAccuracy(), gameState.getScore());
                 achievementManager.updateAllAchievements();
 				LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
@@ -235,6 +256,167 @@ public final class Core {
 		System.exit(0);
 	}
 
+	/**
+	 * Plays levels until the player runs out of lives, or the replay being
+	 * played back ends.
+	 *
+	 * @param gameState
+	 *            Game state at the start of the first level.
+	 * @param gameSetting
+	 *            Settings of the previous level.
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @param fps
+	 *            Frames per second of the game.
+	 * @param wallet
+	 *            Upgrades bought by the player.
+	 * @param achievementManager
+	 *            Achievements to update after each level, null to leave
+	 *            them unchanged.
+	 * @return Game state after the last level.
+	 * @throws IOException
+	 *             If the achievements can't be saved.
+	 */
+	private static GameState playLevels(GameState gameState,
+			GameSettings gameSetting, final int width, final int height,
+			final int fps, final Wallet wallet,
+			final AchievementManager achievementManager) throws IOException {
+		EntityPools pools = new EntityPools();
+		do {
+			// One extra live every few levels.
+			startTime = System.currentTimeMillis();
+			boolean bonusLife = gameState.getLevel()
+					% EXTRA_LIFE_FRECUENCY == 0
+					&& gameState.getLivesRemaining() < MAX_LIVES;
+			LOGGER.info("difficulty is " + DifficultySetting);
+			//add variation
+			gameSetting = gameSetting.LevelSettings(gameSetting.getFormationWidth(),
+					gameSetting.getFormationHeight(),
+					gameSetting.getBaseSpeed(),
+					gameSetting.getShootingFrecuency(),
+					gameState.getLevel(), DifficultySetting);
+
+			currentScreen = new GameScreen(gameState,
+					gameSetting,
+					bonusLife, width, height, fps, wallet, pools);
+			LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
+
+					+ " game screen at " + fps + " fps.");
+			showScreen(currentScreen);
+			LOGGER.info("Closing game screen.");
+
+			gameState = ((GameScreen) currentScreen).getGameState();
+
+			gameState = new GameState(gameState, gameState.getLevel() + 1);
+			endTime = System.currentTimeMillis();
+			if (achievementManager != null)
+				achievementManager.updatePlaying(gameState.getMaxCombo(),(int) (endTime - startTime) / 1000, MAX_LIVES, gameState.getLivesRemaining(), gameState.getLevel()-1);
+		} while (gameState.getLivesRemaining() > 0
+				&& (replayPlayer == null || !replayPlayer.isFinished()));
+		return gameState;
+	}
+
+	/**
+	 * Shows a screen on the frame, or runs it without drawing when there
+	 * is no frame.
+	 *
+	 * @param screen
+	 *            Screen to show.
+	 * @return Next screen code.
+	 */
+	private static int showScreen(final Screen screen) {
+		if (frame != null)
+			return frame.setScreen(screen);
+		screen.initialize();
+		return screen.run();
+	}
+
+	/**
+	 * Seeds the random numbers of a new game, and starts recording it if a
+	 * replay file was given. The recording is replaced by every new game.
+	 *
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @param wallet
+	 *            Upgrades bought by the player.
+	 */
+	private static void startGame(final int width, final int height,
+			final Wallet wallet) {
+		long seed = SEED != null ? SEED : System.nanoTime();
+		RANDOM.setSeed(seed);
+		if (RECORD == null)
+			return;
+
+		ReplayFormat.Header header = new ReplayFormat.Header(seed,
+				getGameClock().nanos(), FPS, width, height, DifficultySetting,
+				BASE_SHIP.ordinal(), wallet.getCoin(), wallet.getBullet_lv(),
+				wallet.getShot_lv(), wallet.getLives_lv(), wallet.getCoin_lv());
+		try {
+			getInputManager().startRecording(RECORD, header);
+			LOGGER.info("Recording the game to " + RECORD + " with seed "
+					+ seed + ".");
+		} catch (IOException e) {
+			LOGGER.warning("Couldn't record the game to " + RECORD + ": "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Plays back a recorded game instead of running the menus. Without a
+	 * display the game is only simulated, never drawn.
+	 *
+	 * @param path
+	 *            Path of the replay file.
+	 * @throws IOException
+	 *             If the game can't be played back.
+	 */
+	private static void replay(final String path) throws IOException {
+		try {
+			replayPlayer = new ReplayPlayer(path, InputManager.NUM_KEYS);
+		} catch (IOException e) {
+			LOGGER.severe("Couldn't read the replay " + path + ": "
+					+ e.getMessage());
+			return;
+		}
+		ReplayFormat.Header header = replayPlayer.getHeader();
+
+		if (!GraphicsEnvironment.isHeadless()) {
+			frame = new Frame(WIDTH, HEIGHT);
+			DrawManager.getInstance().setFrame(frame);
+		}
+		RANDOM.setSeed(header.seed());
+		getGameClock().setNanos(header.clockNanos());
+		BASE_SHIP = Ship.ShipType.values()[header.shipType()];
+		DifficultySetting = header.difficulty();
+		// Built from the recording, so the saved wallet is never touched.
+		Wallet wallet = new Wallet(header.coin(), header.bulletLevel(),
+				header.shotLevel(), header.livesLevel(), header.coinLevel());
+		MAX_LIVES = wallet.getLives_lv() + 2;
+		getInputManager().startPlayback(replayPlayer);
+		LOGGER.info("Replaying " + path + " with seed " + header.seed()
+				+ (REPLAY_FAST ? ", fast forwarded." : "."));
+
+		long start = System.nanoTime();
+		GameState gameState = playLevels(new GameState(1, 0, BASE_SHIP,
+				MAX_LIVES, 0, 0, 0, "", 0, 0, 0, 0, 0),
+				new GameSettings(4, 4, 60, 2500), header.width(),
+				header.height(), header.fps(), wallet, null);
+		long millis = (System.nanoTime() - start) / 1000000;
+
+		LOGGER.info("Replay ended at level " + (gameState.getLevel() - 1)
+				+ " with a score of " + gameState.getScore() + " in "
+				+ millis + " ms, "
+				+ (replayPlayer.hasDiverged() ? "diverging from"
+						: "matching") + " the recording.");
+		getInputManager().stopPlayback();
+		replayPlayer.close();
+		replayPlayer = null;
+	}
+
 	/**
 	 * Constructor, not called.
 	 */
@@ -269,6 +451,66 @@ public final class Core {
 		return InputManager.getInstance();
 	}
 
+	/**
+	 * Controls access to the game clock.
+	 *
+	 * @return Application game clock.
+	 */
+	public static GameClock getGameClock() {
+		return GameClock.getInstance();
+	}
+
+	/**
+	 * Controls access to the random numbers of the game. Every random
+	 * choice of a game is drawn from it, so a game can be replayed from
+	 * its seed.
+	 *
+	 * @return Application random number generator.
+	 */
+	public static Random getRandom() {
+		return RANDOM;
+	}
+
+	/**
+	 * Returns whether screens are updated as fast as possible instead of
+	 * in real time, while a replay is played back.
+	 *
+	 * @return True if fast forwarding was selected at startup.
+	 */
+	public static boolean isFastForward() {
+		return REPLAY != null && REPLAY_FAST || simulating;
+	}
+
+	/**
+	 * Returns whether screens are simulated, updated as fast as possible
+	 * without being drawn or playing sounds.
+	 *
+	 * @return True while a simulation runs.
+	 */
+	public static boolean isSimulating() {
+		return simulating;
+	}
+
+	/**
+	 * Starts or stops simulating screens.
+	 *
+	 * @param simulate
+	 *            If the screens run from now on are simulated.
+	 */
+	static void setSimulating(final boolean simulate) {
+		simulating = simulate;
+	}
+
+	/**
+	 * Returns whether screens are drawn on a window, false while a replay
+	 * is simulated without a display.
+	 *
+	 * @return True if the frame was created.
+	 */
+	public static boolean hasFrame() {
+		return frame != null;
+	}
+
 	/**
 	 * Controls access to the file manager.
 	 * 
@@ -303,6 +545,110 @@ public final class Core {
 		return new Cooldown(milliseconds, variance);
 	}
 
+	/**
+	 * Controls the number of frame buffers reused by the draw manager.
+	 *
+	 * @return Number of buffers in each frame buffer ring.
+	 */
+	public static int getFrameBufferCount() {
+		return FRAME_BUFFERS;
+	}
+
+	/**
+	 * Returns whether sprites are drawn by the int[] software renderer
+	 * instead of Java2D.
+	 *
+	 * @return True if the raster renderer was selected at startup.
+	 */
+	public static boolean isRasterRenderer() {
+		return "raster".equalsIgnoreCase(RENDERER);
+	}
+
+	/**
+	 * Returns whether the game is drawn into a half resolution buffer that
+	 * is upscaled to the window when the frame is shown.
+	 *
+	 * @return True if low resolution drawing was selected at startup.
+	 */
+	public static boolean isLowResolution() {
+		return LOW_RESOLUTION;
+	}
+
+	/**
+	 * Getter for the number of horizontal bands two player frames are
+	 * rasterized in, each on its own core.
+	 *
+	 * @return Number of bands, 0 or 1 to rasterize on the drawing thread.
+	 */
+	public static int getRenderBands() {
+		return RENDER_BANDS;
+	}
+
+	/**
+	 * Getter for the most ticks the frame pacer lets pass between two
+	 * drawn frames, when the machine can't draw every frame.
+	 *
+	 * @return Most ticks between drawn frames, 1 to draw every frame.
+	 */
+	public static int getMaxDrawInterval() {
+		return MAX_DRAW_INTERVAL;
+	}
+
+	/**
+	 * Getter for the number of bullets a game screen prepares room for.
+	 *
+	 * @return Initial capacity of the bullet store.
+	 */
+	public static int getBulletCapacity() {
+		return BULLET_CAPACITY;
+	}
+
+	/**
+	 * Getter for the most bullets a game screen holds at once.
+	 *
+	 * @return Largest capacity of the bullet store.
+	 */
+	public static int getBulletLimit() {
+		return BULLET_LIMIT;
+	}
+
+	/**
+	 * Returns whether the phases of each frame are timed by the frame
+	 * profiler.
+	 *
+	 * @return True if profiling was enabled at startup.
+	 */
+	public static boolean isProfiling() {
+		return PROFILE;
+	}
+
+	/**
+	 * Getter for the CSV file frame profiles are appended to.
+	 *
+	 * @return Path of the file, null to only log the profiles.
+	 */
+	public static String getProfileCsv() {
+		return PROFILE_CSV;
+	}
+
+	/**
+	 * Getter for the angular resolution of pre-rotated sprites.
+	 *
+	 * @return Number of rotation steps in a full turn.
+	 */
+	public static int getRotationSteps() {
+		return ROTATION_STEPS;
+	}
+
+	/**
+	 * Getter for the size of the pre-rotated sprite cache.
+	 *
+	 * @return Most bytes taken by the rotated frames kept.
+	 */
+	public static long getRotationCacheBytes() {
+		return ROTATION_CACHE_BYTES;
+	}
+
 	/**
 	 * @param level set LevelSetting from GameSettingScreen
 	 */
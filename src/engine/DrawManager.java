@@ -5,14 +5,13 @@ import java.awt.Font;
 import java.awt.FontFormatException;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
-import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.awt.Graphics2D;
 import java.io.File;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import javax.imageio.ImageIO;
 
@@ -29,22 +28,32 @@ import screen.Screen;
 public final class DrawManager {
 	/** Singleton instance of the class. */
 	private static DrawManager instance;
-	/** Current frame. */
-	private static Frame frame;
+	/** Output the frames are presented on. */
+	private static Renderer renderer;
 	/** FileManager instance. */
 	private static FileManager fileManager;
 	/** Application logger. */
 	private static Logger logger;
-	/** Graphics context. */
+	/** Graphics context of the frame page being drawn. */
 	private static Graphics graphics;
 	/** Buffer Graphics. */
 	private static Graphics backBufferGraphics;
 	/** Buffer Graphics for multi screens. */
 	private static final Graphics[] threadBufferGraphics = new Graphics[2];
+	/** Buffer Graphics sprites are drawn with, in buffer pixels. */
+	private static Graphics spriteGraphics;
+	/** Buffer Graphics sprites are drawn with for multi screens. */
+	private static final Graphics[] threadSpriteGraphics = new Graphics[2];
 	/** Buffer image. */
 	private static BufferedImage backBuffer;
 	/** Buffer images for multi screens **/
-	private static final BufferedImage[] threadBuffers = new BufferedImage[4];
+	private static final BufferedImage[] threadBuffers = new BufferedImage[2];
+	/** Reused back buffers. */
+	private static FrameBufferRing backBufferRing;
+	/** Buffers handed over from each thread of multi screens to the merge. */
+	private static final TripleBuffer[] threadFrames = new TripleBuffer[2];
+	/** Retained image of the menu screen being shown. */
+	private static final UiLayer uiLayer = new UiLayer();
 	/** Small sized font. */
 	private static Font fontSmall;
 	/** Small sized font properties. */
@@ -59,9 +68,29 @@ public final class DrawManager {
 	private static FontMetrics fontBigMetrics;
 	/** Vertical line width for two player mode **/
 	private static final int LINE_WIDTH = 1;
+	/** Size in screen pixels of one sprite pixel. */
+	private static final int SPRITE_PIXEL_SIZE = 2;
+	/** Screen pixels per pixel of the game buffers, 2 at low resolution. */
+	private static int renderScale = 1;
+	/** HUD text in the normal sized font. */
+	private static HudText hudText;
+	/** Ships drawn as remaining lives, one per ship type. */
+	private static final Map<Ship.ShipType, Ship> livesShips = new ConcurrentHashMap<Ship.ShipType, Ship>();
 
 	/** Sprite types mapped to their images. */
 	private static Map<SpriteType, boolean[][]> spriteMap;
+	/** Sprites pre-rasterized for each color they are drawn in. */
+	private static SpriteAtlas spriteAtlas;
+	/** Software renderer for sprites, null when drawing through Java2D. */
+	private static SpriteRaster spriteRaster;
+	/** Pre-rotated sprites for entities drawn at an angle. */
+	private static RotationCache rotationCache;
+	/** Sprite masks for pixel exact collisions. */
+	private static CollisionMasks collisionMasks;
+	/** Sprite lists of each thread of multi screens, null on one thread. */
+	private static final BandRasterizer[] threadBands = new BandRasterizer[2];
+	/** Composition of multi screens, null on one thread. */
+	private static BandRasterizer mergeBands;
 
 	/** For Shopscreen image */
 	private static BufferedImage img_additionallife;
@@ -166,12 +195,42 @@ public final class DrawManager {
 			spriteMap.put(SpriteType.EnemyShipF1, new boolean[16][7]);
 
 			fileManager.loadSprite(spriteMap);
+			if (Core.isLowResolution()) {
+				renderScale = SPRITE_PIXEL_SIZE;
+				logger.info("Drawing the game at low resolution.");
+			}
+			spriteAtlas = new SpriteAtlas(spriteMap,
+					SPRITE_PIXEL_SIZE / renderScale);
+			rotationCache = new RotationCache(spriteAtlas,
+					Core.getRotationSteps(), Core.getRotationCacheBytes());
+			// Collisions share the rotated frames when they are drawn at
+			// screen scale.
+			collisionMasks = new CollisionMasks(spriteMap, SPRITE_PIXEL_SIZE,
+					renderScale == 1 ? rotationCache
+							: new RotationCache(
+									new SpriteAtlas(spriteMap, SPRITE_PIXEL_SIZE),
+									Core.getRotationSteps(),
+									Core.getRotationCacheBytes()));
+			if (Core.isRasterRenderer()) {
+				spriteRaster = new SpriteRaster(spriteMap,
+						SPRITE_PIXEL_SIZE / renderScale);
+				logger.info("Drawing sprites with the raster renderer.");
+				if (Core.getRenderBands() > 1) {
+					for (int i = 0; i < threadBands.length; i++)
+						threadBands[i] = new BandRasterizer(Core.getRenderBands(), 0);
+					mergeBands = new BandRasterizer(Core.getRenderBands(),
+							threadBands.length);
+					logger.info("Rasterizing multi screens in "
+							+ Core.getRenderBands() + " bands.");
+				}
+			}
 			logger.info("Finished loading the sprites.");
 
 			// Font loading.
 			fontSmall = fileManager.loadFont(10f);
 			fontRegular = fileManager.loadFont(14f);
 			fontBig = fileManager.loadFont(24f);
+			hudText = new HudText(fontRegular);
 			logger.info("Finished loading the fonts.");
 
 		} catch (IOException e) {
@@ -180,6 +239,11 @@ public final class DrawManager {
 			logger.warning("Font formating failed.");
 		}
 
+		backBufferRing = new FrameBufferRing(Core.getFrameBufferCount(),
+				renderScale);
+		for (int i = 0; i < threadFrames.length; i++)
+			threadFrames[i] = new TripleBuffer(renderScale);
+
 		/** Shop image load*/
 		try{
 			img_additionallife = ImageIO.read(new File("res/image/additional life.jpg"));
@@ -204,6 +268,15 @@ public final class DrawManager {
 		return instance;
 	}
 
+	/**
+	 * Getter for the sprite masks collisions are checked with.
+	 *
+	 * @return Sprite masks, null if the sprites couldn't be loaded.
+	 */
+	public CollisionMasks getCollisionMasks() {
+		return collisionMasks;
+	}
+
 	/**
 	 * Sets the frame to draw the image on.
 	 *
@@ -211,7 +284,17 @@ public final class DrawManager {
 	 *            Frame to draw on.
 	 */
 	public void setFrame(final Frame currentFrame) {
-		frame = currentFrame;
+		renderer = new FrameRenderer(currentFrame);
+	}
+
+	/**
+	 * Sets the output to present the frames on, e.g. a headless renderer.
+	 *
+	 * @param currentRenderer
+	 *            Renderer to present the frames with.
+	 */
+	public void setRenderer(final Renderer currentRenderer) {
+		renderer = currentRenderer;
 	}
 
 	/**
@@ -222,15 +305,21 @@ public final class DrawManager {
 	 *            Screen to draw in.
 	 */
 	public void initDrawing(final Screen screen) {
-		backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
-				BufferedImage.TYPE_INT_RGB);
-
-		graphics = frame.getGraphics();
-		backBufferGraphics = backBuffer.getGraphics();
-
-		backBufferGraphics.setColor(Color.BLACK);
-		backBufferGraphics
-				.fillRect(0, 0, screen.getWidth(), screen.getHeight());
+		graphics = renderer.getDrawGraphics();
+
+		if (graphics != null && spriteRaster == null && renderScale == 1) {
+			// Draw straight on the accelerated page of the frame.
+			backBuffer = null;
+			backBufferGraphics = graphics;
+			backBufferGraphics.setClip(0, 0, screen.getWidth(), screen.getHeight());
+			backBufferGraphics.setColor(Color.BLACK);
+			backBufferGraphics.fillRect(0, 0, screen.getWidth(), screen.getHeight());
+			spriteGraphics = graphics;
+		} else {
+			backBuffer = backBufferRing.next(screen.getWidth(), screen.getHeight());
+			backBufferGraphics = backBufferRing.currentGraphics();
+			spriteGraphics = backBufferRing.currentPixelGraphics();
+		}
 
 		fontSmallMetrics = backBufferGraphics.getFontMetrics(fontSmall);
 		fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
@@ -239,6 +328,38 @@ public final class DrawManager {
 		//drawBorders(screen);
 		//drawGrid(screen);
 	}
+	/**
+	 * First part of the drawing process of a menu screen drawn on a retained
+	 * layer. If the screen and the values of its model are equal to the
+	 * ones the layer was last drawn for, the layer is presented as is and there is
+	 * nothing else to draw. Otherwise the layer is cleared for the screen to
+	 * draw on, and the frame is finished with completeDrawing.
+	 *
+	 * @param screen
+	 *            Screen to draw in.
+	 * @param model
+	 *            Values of everything the screen shows, compared with
+	 *            equals, e.g. a record.
+	 * @return True if the screen has to draw its elements again.
+	 */
+	public boolean beginLayer(final Screen screen, final Object model) {
+		graphics = renderer.getDrawGraphics();
+
+		if (uiLayer.isCurrent(screen, model)) {
+			backBuffer = uiLayer.image();
+			completeDrawing(screen);
+			return false;
+		}
+
+		backBuffer = uiLayer.begin(screen, model);
+		backBufferGraphics = uiLayer.graphics();
+
+		fontSmallMetrics = backBufferGraphics.getFontMetrics(fontSmall);
+		fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
+		fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
+		return true;
+	}
+
 	/**
 	 * First part of the drawing process in thread. Initializes buffers each thread, draws the
 	 * background and prepares the images.
@@ -250,37 +371,90 @@ public final class DrawManager {
 	 */
 
 	public void initThreadDrawing(final Screen screen, final int threadNumber) {
-		BufferedImage threadBuffer = new BufferedImage(screen.getWidth(),screen.getHeight(), BufferedImage.TYPE_INT_RGB);
-		Graphics threadGraphic = threadBuffer.getGraphics();
+		TripleBuffer frames = threadFrames[threadNumber];
 
-		threadBuffers[threadNumber] = threadBuffer;
-		threadBufferGraphics[threadNumber] = threadGraphic;
+		threadBuffers[threadNumber] = frames.next(screen.getWidth(), screen.getHeight());
+		threadBufferGraphics[threadNumber] = frames.currentGraphics();
+		threadSpriteGraphics[threadNumber] = frames.currentPixelGraphics();
 	}
 
 	/**
-	 * Draws the completed drawing on screen.
+	 * Draws the completed drawing on screen. A low resolution buffer is
+	 * upscaled to the screen here, once per frame, with the default nearest
+	 * neighbour interpolation.
 	 *
 	 * @param screen
 	 *            Screen to draw on.
 	 */
 	public void completeDrawing(final Screen screen) {
-		graphics.drawImage(backBuffer, frame.getInsets().left,
-				frame.getInsets().top, frame);
+		if (graphics != null) {
+			if (backBuffer != null)
+				graphics.drawImage(backBuffer, 0, 0, screen.getWidth(),
+						screen.getHeight(), null);
+			if (!renderer.showDrawGraphics(graphics))
+				logger.fine("Frame contents lost, dropped the frame.");
+			return;
+		}
+
+		renderer.showImage(backBuffer);
 	}
 
 	/**
-	 * Merge second buffers to back buffer
+	 * Merge the latest frame flushed by each thread to back buffer. Never
+	 * waits for the threads: a thread that has not finished a new frame
+	 * since the last merge shows its previous one again.
 	 *
 	 * @param screen
 	 *            Screen to draw on.
 	 */
 	public void mergeDrawing(final Screen screen) {
-		backBufferGraphics.drawImage(threadBuffers[2], 0, 0, frame);
-		backBufferGraphics.drawImage(threadBuffers[3], screen.getWidth() / 2 + LINE_WIDTH, 0, frame);
+		int positionX = (screen.getWidth() / 2 + LINE_WIDTH) / renderScale;
+		BufferedImage first = threadFrames[0].latest();
+		BufferedImage second = threadFrames[1].latest();
+		if (mergeBands != null && mergeBands.begin(backBuffer)) {
+			if (first != null && !mergeBands.addImage(first, 0))
+				spriteGraphics.drawImage(first, 0, 0, null);
+			if (second != null && !mergeBands.addImage(second, positionX))
+				spriteGraphics.drawImage(second, positionX, 0, null);
+			mergeBands.end();
+			return;
+		}
+		if (first != null)
+			spriteGraphics.drawImage(first, 0, 0, null);
+		if (second != null)
+			spriteGraphics.drawImage(second, positionX, 0, null);
 	}
 
 	/**
-	 * Flush buffer to second buffer
+	 * Starts recording the sprites drawn by a thread of multi screens. When
+	 * rasterizing in bands is enabled, the sprites are drawn together by
+	 * endSpriteBatch, otherwise they are drawn right away.
+	 *
+	 * @param threadNumber
+	 * 			  Thread number for two player mode
+	 */
+	public void beginSpriteBatch(final int threadNumber) {
+		if (threadBands[threadNumber] != null)
+			threadBands[threadNumber].begin(threadBuffers[threadNumber]);
+	}
+
+	/**
+	 * Draws the sprites recorded since beginSpriteBatch, one band of the
+	 * buffer per core.
+	 *
+	 * @param threadNumber
+	 * 			  Thread number for two player mode
+	 */
+	public void endSpriteBatch(final int threadNumber) {
+		if (threadBands[threadNumber] != null
+				&& threadBands[threadNumber].isOpen())
+			threadBands[threadNumber].end();
+	}
+
+	/**
+	 * Flush buffer to second buffer. The finished buffer is published to
+	 * mergeDrawing with one atomic swap, and the next frame of the thread is
+	 * drawn on a buffer the merge is not reading.
 	 *
 	 * @param screen
 	 *            Screen to draw on.
@@ -288,11 +462,7 @@ public final class DrawManager {
 	 * 			  Thread number for two player mode
 	 */
 	public void flushBuffer(final Screen screen, final int threadNumber) {
-		BufferedImage threadBuffer = new BufferedImage(screen.getWidth(),screen.getHeight(), BufferedImage.TYPE_INT_RGB);
-		Graphics threadGraphic = threadBuffer.getGraphics();
-
-		threadGraphic.drawImage(threadBuffers[threadNumber], 0, 0, frame);
-		threadBuffers[threadNumber + 2] = threadBuffer;
+		threadFrames[threadNumber].publish();
 	}
 
 	/**
@@ -307,14 +477,8 @@ public final class DrawManager {
 	 */
 	public void drawEntity(final Entity entity, final int positionX,
 			final int positionY) {
-		boolean[][] image = spriteMap.get(entity.getSpriteType());
-
-		backBufferGraphics.setColor(entity.getColor());
-		for (int i = 0; i < image.length; i++)
-			for (int j = 0; j < image[i].length; j++)
-				if (image[i][j])
-					backBufferGraphics.drawRect(positionX + i * 2, positionY
-							+ j * 2, 1, 1);
+		drawSprite(spriteGraphics, backBuffer, null, entity.getSpriteType(),
+				entity.getColor(), positionX, positionY);
 	}
 
     /**
@@ -331,50 +495,156 @@ public final class DrawManager {
      */
     public void drawEntity(final Entity entity, final int positionX,
                            final int positionY, final int threadNumber) {
-        boolean[][] image = spriteMap.get(entity.getSpriteType());
-
-        threadBufferGraphics[threadNumber].setColor(entity.getColor());
-        for (int i = 0; i < image.length; i++)
-            for (int j = 0; j < image[i].length; j++)
-                if (image[i][j])
-                    threadBufferGraphics[threadNumber].drawRect(positionX + i * 2, positionY
-                            + j * 2, 1, 1);
+        drawSprite(threadSpriteGraphics[threadNumber], threadBuffers[threadNumber],
+                threadBands[threadNumber], entity.getSpriteType(),
+                entity.getColor(), positionX, positionY);
     }
 
-	//Drawing an Entity (Blocker) that requires angle setting
-	public void drawRotatedEntity(Entity entity, int x, int y, double angle) {
-		Graphics2D g2d = (Graphics2D) backBufferGraphics; // Convert to Graphics2D
-		AffineTransform oldTransform = g2d.getTransform(); // Save previous conversion
-
-		//Set center point to rotate
-		int centerX = x + entity.getWidth() / 2;
-		int centerY = y + entity.getHeight() / 2;
+	/**
+	 * Draws every bullet of a store.
+	 *
+	 * @param bullets
+	 *            Bullets to be drawn.
+	 */
+	public void drawBullets(final BulletStore bullets) {
+		for (int i = 0; i < bullets.size(); i++)
+			drawSprite(spriteGraphics, backBuffer, null,
+					bullets.getSpriteType(i), BulletStore.COLOR,
+					bullets.getPositionX(i), bullets.getPositionY(i));
+	}
 
-		//rotate by a given angle
-		g2d.rotate(Math.toRadians(angle), centerX, centerY);
+	/**
+	 * Draws every bullet of a store.
+	 *
+	 * @param bullets
+	 *            Bullets to be drawn.
+	 * @param threadNumber
+	 *            Thread number for two player mode
+	 */
+	public void drawBullets(final BulletStore bullets, final int threadNumber) {
+		for (int i = 0; i < bullets.size(); i++)
+			drawSprite(threadSpriteGraphics[threadNumber],
+					threadBuffers[threadNumber], threadBands[threadNumber],
+					bullets.getSpriteType(i), BulletStore.COLOR,
+					bullets.getPositionX(i), bullets.getPositionY(i));
+	}
 
-		//Drawing entities
-		drawEntity(entity, x, y);
+	/**
+	 * Draws the sprite of an entity with the raster renderer when it is
+	 * selected and can draw on the buffer, or through Java2D otherwise.
+	 * Positions are given in screen pixels and drawn in buffer pixels.
+	 *
+	 * @param bufferGraphics
+	 *            Unscaled graphics to draw with through Java2D.
+	 * @param buffer
+	 *            Buffer image behind the graphics, null if there is none.
+	 * @param bands
+	 *            Sprite list of the buffer, recording while it is open.
+	 * @param spriteType
+	 *            Sprite to be drawn.
+	 * @param color
+	 *            Color of the sprite.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	private static void drawSprite(final Graphics bufferGraphics,
+			final BufferedImage buffer, final BandRasterizer bands,
+			final SpriteType spriteType, final Color color,
+			final int positionX, final int positionY) {
+		int x = Math.floorDiv(positionX, renderScale);
+		int y = Math.floorDiv(positionY, renderScale);
+		if (bands != null && bands.isOpen()
+				&& bands.add(spriteRaster.mask(spriteType),
+						spriteRaster.maskWidth(spriteType), color, x, y))
+			return;
+		if (spriteRaster != null && buffer != null
+				&& spriteRaster.draw(buffer, spriteType, color, x, y))
+			return;
+		bufferGraphics.drawImage(spriteAtlas.get(spriteType, color), x, y,
+				null);
+	}
 
-		g2d.setTransform(oldTransform); // Restore to original conversion state
+	/**
+	 * Draws an entity rotated around its center, using a pre-rotated image.
+	 *
+	 * @param entity
+	 *            Entity to be drawn.
+	 * @param x
+	 *            Coordinates for the left side of the unrotated image.
+	 * @param y
+	 *            Coordinates for the upper side of the unrotated image.
+	 * @param angle
+	 *            Rotation in degrees.
+	 */
+	public void drawRotatedEntity(Entity entity, int x, int y, double angle) {
+		drawRotatedSprite(spriteGraphics, backBuffer, null, entity, x, y,
+				angle);
 	}
 
-	//Drawing an Entity (Blocker) that requires angle setting
+	/**
+	 * Draws an entity rotated around its center, using a pre-rotated image.
+	 *
+	 * @param entity
+	 *            Entity to be drawn.
+	 * @param x
+	 *            Coordinates for the left side of the unrotated image.
+	 * @param y
+	 *            Coordinates for the upper side of the unrotated image.
+	 * @param angle
+	 *            Rotation in degrees.
+	 * @param threadNumber
+	 *            Thread number for two player mode
+	 */
 	public void drawRotatedEntity(Entity entity, int x, int y, double angle, final int threadNumber) {
-		Graphics2D g2d = (Graphics2D) threadBufferGraphics[threadNumber]; // Convert to Graphics2D
-		AffineTransform oldTransform = g2d.getTransform(); // Save previous conversion
-
-		//Set center point to rotate
-		int centerX = x + entity.getWidth() / 2;
-		int centerY = y + entity.getHeight() / 2;
-
-		//rotate by a given angle
-		g2d.rotate(Math.toRadians(angle), centerX, centerY);
-
-		//Drawing entities
-		drawEntity(entity, x, y, threadNumber);
+		drawRotatedSprite(threadSpriteGraphics[threadNumber], threadBuffers[threadNumber],
+				threadBands[threadNumber], entity, x, y, angle);
+	}
 
-		g2d.setTransform(oldTransform); // Restore to original conversion state
+	/**
+	 * Draws the pre-rotated sprite of an entity with the raster renderer
+	 * when it is selected and can draw on the buffer, or through Java2D
+	 * otherwise. Positions are given in screen pixels and drawn in buffer
+	 * pixels.
+	 *
+	 * @param bufferGraphics
+	 *            Unscaled graphics to draw with through Java2D.
+	 * @param buffer
+	 *            Buffer image behind the graphics, null if there is none.
+	 * @param bands
+	 *            Sprite list of the buffer, recording while it is open.
+	 * @param entity
+	 *            Entity to be drawn.
+	 * @param x
+	 *            Coordinates for the left side of the unrotated image.
+	 * @param y
+	 *            Coordinates for the upper side of the unrotated image.
+	 * @param angle
+	 *            Rotation in degrees.
+	 */
+	private static void drawRotatedSprite(final Graphics bufferGraphics,
+			final BufferedImage buffer, final BandRasterizer bands,
+			final Entity entity, final int x, final int y,
+			final double angle) {
+		RotationCache.Rotated rotated = rotationCache.get(
+				entity.getSpriteType(), angle,
+				entity.getWidth() / 2 / renderScale,
+				entity.getHeight() / 2 / renderScale);
+		int positionX = Math.floorDiv(x, renderScale) + rotated.offsetX();
+		int positionY = Math.floorDiv(y, renderScale) + rotated.offsetY();
+
+		if (bands != null && bands.isOpen()
+				&& bands.add(rotated.mask(), rotated.width(),
+						entity.getColor(), positionX, positionY))
+			return;
+		if (spriteRaster != null && buffer != null
+				&& SpriteRaster.draw(buffer, rotated.mask(),
+						rotated.width(), entity.getColor(),
+						positionX, positionY))
+			return;
+		bufferGraphics.drawImage(rotationCache.image(rotated,
+				entity.getColor()), positionX, positionY, null);
 	}
 
 	/**
@@ -418,10 +688,8 @@ public final class DrawManager {
 	 *            Current score.
 	 */
 	public void drawScore(final Screen screen, final int score) {
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.WHITE);
-		String scoreString = String.format("%04d", score);
-		backBufferGraphics.drawString(scoreString, screen.getWidth() - 60, 25);
+		hudText.line().append(score, 4).draw(backBufferGraphics,
+				rasterBuffer(backBuffer), Color.WHITE, screen.getWidth() - 60, 25);
 	}
     /**
 	 * Draws level on screen.
@@ -432,10 +700,8 @@ public final class DrawManager {
 	 *            Current level.
 	 */
 	public void drawLevel(final Screen screen, final int level) {
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.WHITE);
-		String scoreString = String.format("lv.%d", level);
-		backBufferGraphics.drawString(scoreString, screen.getWidth() / 2 - 60, 25);
+		hudText.line().append("lv.").append(level, 1).draw(backBufferGraphics,
+				rasterBuffer(backBuffer), Color.WHITE, screen.getWidth() / 2 - 60, 25);
 	}
 	/**
 	 * Draws level on screen.
@@ -448,10 +714,8 @@ public final class DrawManager {
 	 *            Thread number for two player mode
 	 */
 	public void drawLevel(final Screen screen, final int level, final int threadNumber) {
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.WHITE);
-		String scoreString = String.format("lv.%d", level);
-		threadBufferGraphics[threadNumber].drawString(scoreString, screen.getWidth() / 2 - 60, 25);
+		hudText.line().append("lv.").append(level, 1).draw(threadBufferGraphics[threadNumber],
+				rasterBuffer(threadBuffers[threadNumber]), Color.WHITE, screen.getWidth() / 2 - 60, 25);
 	}
 
 	/**
@@ -465,10 +729,8 @@ public final class DrawManager {
 	 *            Thread number for two player mode
 	 */
 	public void drawScore(final Screen screen, final int score, final int threadNumber) {
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.WHITE);
-		String scoreString = String.format("%04d", score);
-		threadBufferGraphics[threadNumber].drawString(scoreString, screen.getWidth() - 60, 25);
+		hudText.line().append(score, 4).draw(threadBufferGraphics[threadNumber],
+				rasterBuffer(threadBuffers[threadNumber]), Color.WHITE, screen.getWidth() - 60, 25);
 	}
 
 	/**
@@ -480,21 +742,8 @@ public final class DrawManager {
 	 *            Elapsed time.
 	 */
 	public void drawElapsedTime(final Screen screen, final int elapsedTime) {
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.LIGHT_GRAY);
-
-		int cent = (elapsedTime % 1000)/10;
-		int seconds = elapsedTime / 1000;
-		int sec = seconds % 60;
-		int min = seconds / 60;
-
-        String elapsedTimeString;
-        if (min < 1){
-            elapsedTimeString = String.format("%d.%02d", sec, cent);
-        } else {
-            elapsedTimeString = String.format("%d:%02d.%02d", min, sec, cent);
-        }
-        backBufferGraphics.drawString(elapsedTimeString, screen.getWidth()/2, 25);
+		appendTime(hudText.line(), elapsedTime).draw(backBufferGraphics,
+				rasterBuffer(backBuffer), Color.LIGHT_GRAY, screen.getWidth()/2, 25);
     }
 
 	/**
@@ -508,21 +757,41 @@ public final class DrawManager {
 	 *            Thread number for two player mode
 	 */
 	public void drawElapsedTime(final Screen screen, final int elapsedTime, final int threadNumber) {
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.LIGHT_GRAY);
+		appendTime(hudText.line(), elapsedTime).draw(threadBufferGraphics[threadNumber],
+				rasterBuffer(threadBuffers[threadNumber]), Color.LIGHT_GRAY, screen.getWidth()/2, 25);
+	}
+
+	/**
+	 * Appends a time to a HUD line, as seconds and hundredths and with the
+	 * minutes once there is at least one.
+	 *
+	 * @param line
+	 *            Line to append to.
+	 * @param time
+	 *            Time in milliseconds.
+	 * @return The line.
+	 */
+	private static HudText.Line appendTime(final HudText.Line line, final int time) {
+		int cent = (time % 1000)/10;
+		int seconds = time / 1000;
+		int sec = seconds % 60;
+		int min = seconds / 60;
 
-        int cent = (elapsedTime % 1000)/10;
-        int seconds = elapsedTime / 1000;
-        int sec = seconds % 60;
-        int min = seconds / 60;
+		if (min < 1)
+			return line.append(sec, 1).append(".").append(cent, 2);
+		return line.append(min, 1).append(":").append(sec, 2).append(".").append(cent, 2);
+	}
 
-		String elapsedTimeString;
-		if (min < 1){
-			elapsedTimeString = String.format("%d.%02d", sec, cent);
-		} else {
-			elapsedTimeString = String.format("%d:%02d.%02d", min, sec, cent);
-		}
-		threadBufferGraphics[threadNumber].drawString(elapsedTimeString, screen.getWidth()/2, 25);
+	/**
+	 * Returns the buffer the raster renderer can fill directly. Text glyphs
+	 * are only pre-rendered at full resolution.
+	 *
+	 * @param buffer
+	 *            Buffer image being drawn, null if there is none.
+	 * @return The buffer, or null when drawing through Java2D.
+	 */
+	private static BufferedImage rasterBuffer(final BufferedImage buffer) {
+		return spriteRaster != null && renderScale == 1 ? buffer : null;
 	}
 
 	/**
@@ -569,10 +838,10 @@ public final class DrawManager {
 	 *            Current lives.
 	 */
 	public void drawLives(final Screen screen, final int lives, final Ship.ShipType shipType) {
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.WHITE);
-		backBufferGraphics.drawString(Integer.toString(lives), 20, 25);
-		Ship dummyShip = ShipFactory.create(shipType, 0, 0);
+		hudText.line().append(lives, 1).draw(backBufferGraphics,
+				rasterBuffer(backBuffer), Color.WHITE, 20, 25);
+		Ship dummyShip = livesShips.computeIfAbsent(shipType,
+				type -> ShipFactory.create(type, 0, 0));
 		for (int i = 0; i < lives; i++)
 			drawEntity(dummyShip, 40 + 35 * i, 10);
 	}
@@ -589,10 +858,10 @@ public final class DrawManager {
 	 *            Thread number for two player mode
 	 */
 	public void drawLives(final Screen screen, final int lives, final Ship.ShipType shipType, final int threadNumber) {
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.WHITE);
-		threadBufferGraphics[threadNumber].drawString(Integer.toString(lives), 20, 25);
-		Ship dummyShip = ShipFactory.create(shipType, 0, 0);
+		hudText.line().append(lives, 1).draw(threadBufferGraphics[threadNumber],
+				rasterBuffer(threadBuffers[threadNumber]), Color.WHITE, 20, 25);
+		Ship dummyShip = livesShips.computeIfAbsent(shipType,
+				type -> ShipFactory.create(type, 0, 0));
 		for (int i = 0; i < lives; i++)
 			drawEntity(dummyShip, 40 + 35 * i, 10, threadNumber);
 	}
@@ -1384,13 +1653,10 @@ public final class DrawManager {
 		}
 
 
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.LIGHT_GRAY);
-		FontMetrics metrics = backBufferGraphics.getFontMetrics(fontRegular);
-		String highScoreDisplay = highestPlayer + " " + highestScore;
-
-		backBufferGraphics.drawString(highScoreDisplay,
-				screen.getWidth() - metrics.stringWidth(highScoreDisplay) - 76, 25);
+		HudText.Line highScoreDisplay = hudText.line().append(highestPlayer)
+				.append(" ").append(highestScore, 1);
+		highScoreDisplay.draw(backBufferGraphics, rasterBuffer(backBuffer), Color.LIGHT_GRAY,
+				screen.getWidth() - highScoreDisplay.width() - 76, 25);
 	}
 	/**
 	 * Draws recorded highscores on screen.
@@ -1416,13 +1682,10 @@ public final class DrawManager {
 		}
 
 
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.LIGHT_GRAY);
-		FontMetrics metrics = threadBufferGraphics[threadNumber].getFontMetrics(fontRegular);
-		String highScoreDisplay = highestPlayer + " " + highestScore;
-
-		threadBufferGraphics[threadNumber].drawString(highScoreDisplay,
-				screen.getWidth() - metrics.stringWidth(highScoreDisplay) - 76, 25);
+		HudText.Line highScoreDisplay = hudText.line().append(highestPlayer)
+				.append(" ").append(highestScore, 1);
+		highScoreDisplay.draw(threadBufferGraphics[threadNumber], rasterBuffer(threadBuffers[threadNumber]),
+				Color.LIGHT_GRAY, screen.getWidth() - highScoreDisplay.width() - 76, 25);
 	}
 	/**
 	 * Draws ReloadTimer on screen.
@@ -1517,12 +1780,9 @@ public final class DrawManager {
 	 *            Number of enemies killed in a row.
 	 */
 	public void drawCombo(final Screen screen, final int combo) {
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.WHITE);
-		if (combo >= 2) {
-			String comboString = String.format("Combo %03d", combo);
-			backBufferGraphics.drawString(comboString, screen.getWidth() - 100, 85);
-		}
+		if (combo >= 2)
+			hudText.line().append("Combo ").append(combo, 3).draw(backBufferGraphics,
+					rasterBuffer(backBuffer), Color.WHITE, screen.getWidth() - 100, 85);
 	}
 	/**
 	 * Draws Combo on screen.
@@ -1535,12 +1795,9 @@ public final class DrawManager {
 	 * 			  Thread number for two player mode
 	 */
 	public void drawCombo(final Screen screen, final int combo, final int threadNumber) {
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.WHITE);
-		if (combo >= 2) {
-			String comboString = String.format("Combo %03d", combo);
-			threadBufferGraphics[threadNumber].drawString(comboString, screen.getWidth() - 100, 85);
-		}
+		if (combo >= 2)
+			hudText.line().append("Combo ").append(combo, 3).draw(threadBufferGraphics[threadNumber],
+					rasterBuffer(threadBuffers[threadNumber]), Color.WHITE, screen.getWidth() - 100, 85);
 	}
 
 	/**
@@ -1603,42 +1860,9 @@ public final class DrawManager {
 	public void interAggre(final Screen screen, final int level, final int maxCombo,
 						   final int elapsedTime, final int lapTime,
 						   final int score, final int tempScore) {
-
-		int prevTime = elapsedTime - lapTime;
-		int prevScore = score - tempScore;
-
-		int pcent = (prevTime % 1000)/10;
-		int pseconds = prevTime / 1000;
-		int psec = pseconds % 60;
-		int pmin = pseconds / 60;
-
-		String timeString;
-		if (pmin < 1){
-			timeString = String.format("Elapsed Time: %d.%02d", psec, pcent);
-		} else {
-			timeString = String.format("Elapsed Time: %d:%02d.%02d", pmin, psec, pcent);
-		}
-
-		String levelString = String.format("Statistics at Level %d", level);
-		String comboString = String.format("MAX COMBO: %03d", maxCombo);
-		String scoreString = String.format("Scores earned: %04d", prevScore);
-
-		backBufferGraphics.setFont(fontRegular);
-		backBufferGraphics.setColor(Color.GREEN);
-		backBufferGraphics.drawString(levelString,
-				(screen.getWidth() - fontRegularMetrics.stringWidth(levelString))/2,
-				5*screen.getHeight()/7);
-		backBufferGraphics.setColor(Color.WHITE);
-		backBufferGraphics.drawString(comboString,
-			(screen.getWidth() - fontRegularMetrics.stringWidth(comboString))/2,
-				5*screen.getHeight()/7 + 21);
-		backBufferGraphics.drawString(timeString,
-						(screen.getWidth() - fontRegularMetrics.stringWidth(timeString))/2,
-				5*screen.getHeight()/7 + 42);
-		backBufferGraphics.drawString(scoreString,
-				(screen.getWidth() - fontRegularMetrics.stringWidth(scoreString))/2,
-				5*screen.getHeight()/7 + 63);
-		}
+		drawAggregation(screen, backBufferGraphics, rasterBuffer(backBuffer), level,
+				maxCombo, elapsedTime - lapTime, score - tempScore);
+	}
 
 	/**
 	 * Draws intermediate aggregation on screen.
@@ -1661,41 +1885,47 @@ public final class DrawManager {
 	public void interAggre(final Screen screen, final int level, final int maxCombo,
 						   final int elapsedTime, final int lapTime,
 						   final int score, final int tempScore, final int threadNumber) {
+		drawAggregation(screen, threadBufferGraphics[threadNumber],
+				rasterBuffer(threadBuffers[threadNumber]), level, maxCombo,
+				elapsedTime - lapTime, score - tempScore);
+	}
 
-		int prevTime = elapsedTime - lapTime;
-		int prevScore = score - tempScore;
-
-		int pcent = (prevTime % 1000)/10;
-		int pseconds = prevTime / 1000;
-		int psec = pseconds % 60;
-		int pmin = pseconds / 60;
-
-		String timeString;
-		if (pmin < 1){
-			timeString = String.format("Elapsed Time: %d.%02d", psec, pcent);
-		} else {
-			timeString = String.format("Elapsed Time: %d:%02d.%02d", pmin, psec, pcent);
-		}
-
-		String levelString = String.format("Statistics at Level %d", level);
-		String comboString = String.format("MAX COMBO: %03d", maxCombo);
-		String scoreString = String.format("Scores earned: %04d", prevScore);
-
-		threadBufferGraphics[threadNumber].setFont(fontRegular);
-		threadBufferGraphics[threadNumber].setColor(Color.GREEN);
-		threadBufferGraphics[threadNumber].drawString(levelString,
-				(screen.getWidth() - fontRegularMetrics.stringWidth(levelString))/2,
-				5*screen.getHeight()/7);
-		threadBufferGraphics[threadNumber].setColor(Color.WHITE);
-		threadBufferGraphics[threadNumber].drawString(comboString,
-				(screen.getWidth() - fontRegularMetrics.stringWidth(comboString))/2,
-				5*screen.getHeight()/7 + 21);
-		threadBufferGraphics[threadNumber].drawString(timeString,
-				(screen.getWidth() - fontRegularMetrics.stringWidth(timeString))/2,
-				5*screen.getHeight()/7 + 42);
-		threadBufferGraphics[threadNumber].drawString(scoreString,
-				(screen.getWidth() - fontRegularMetrics.stringWidth(scoreString))/2,
-				5*screen.getHeight()/7 + 63);
+	/**
+	 * Draws the statistics of the previous level, centered on the screen.
+	 *
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param bufferGraphics
+	 *            Graphics to draw with.
+	 * @param buffer
+	 *            Buffer the raster renderer can fill, null for Java2D.
+	 * @param level
+	 *            Level the statistics are for.
+	 * @param maxCombo
+	 *            Value of maxCombo.
+	 * @param prevTime
+	 *            Time spent in the level.
+	 * @param prevScore
+	 *            Score earned in the level.
+	 */
+	private static void drawAggregation(final Screen screen, final Graphics bufferGraphics,
+										final BufferedImage buffer, final int level,
+										final int maxCombo, final int prevTime,
+										final int prevScore) {
+		int positionY = 5*screen.getHeight()/7;
+
+		HudText.Line line = hudText.line().append("Statistics at Level ").append(level, 1);
+		line.draw(bufferGraphics, buffer, Color.GREEN,
+				(screen.getWidth() - line.width())/2, positionY);
+		line = hudText.line().append("MAX COMBO: ").append(maxCombo, 3);
+		line.draw(bufferGraphics, buffer, Color.WHITE,
+				(screen.getWidth() - line.width())/2, positionY + 21);
+		line = appendTime(hudText.line().append("Elapsed Time: "), prevTime);
+		line.draw(bufferGraphics, buffer, Color.WHITE,
+				(screen.getWidth() - line.width())/2, positionY + 42);
+		line = hudText.line().append("Scores earned: ").append(prevScore, 4);
+		line.draw(bufferGraphics, buffer, Color.WHITE,
+				(screen.getWidth() - line.width())/2, positionY + 63);
 	}
 
 	/**
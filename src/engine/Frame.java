@@ -1,6 +1,11 @@
 package engine;
 
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Graphics;
+import java.awt.ImageCapabilities;
 import java.awt.Insets;
+import java.awt.image.BufferStrategy;
 
 import javax.swing.JFrame;
 
@@ -21,6 +26,10 @@ public class Frame extends JFrame {
 	private int height;
 	/** Screen currently shown. */
 	private Screen currentScreen;
+	/** Number of pages of the buffer strategy. */
+	private static final int BUFFER_PAGES = 2;
+	/** Page flipping strategy, with accelerated back buffers. */
+	private BufferStrategy bufferStrategy;
 
 	/**
 	 * Initializes the new frame.
@@ -35,8 +44,11 @@ public class Frame extends JFrame {
 		setResizable(false);
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
 
+		setIgnoreRepaint(true);
+
 		setLocationRelativeTo(null);
 		setVisible(true);
+		createStrategy();
 
 		Insets insets = getInsets();
 		this.width = width - insets.left - insets.right;
@@ -79,4 +91,58 @@ public class Frame extends JFrame {
 	}
 
 	public void moveToMiddle() {setLocationRelativeTo(null);}
+
+	/**
+	 * Creates the buffer strategy, asking for accelerated (volatile) back
+	 * buffers and falling back to whatever the platform offers.
+	 */
+	private void createStrategy() {
+		BufferCapabilities capabilities = new BufferCapabilities(
+				new ImageCapabilities(true), new ImageCapabilities(true), null);
+		try {
+			createBufferStrategy(BUFFER_PAGES, capabilities);
+		} catch (AWTException e) {
+			createBufferStrategy(BUFFER_PAGES);
+		}
+		bufferStrategy = getBufferStrategy();
+	}
+
+	/**
+	 * Returns the graphics of the next page to draw, translated so that its
+	 * origin is the upper left corner of the drawable area.
+	 *
+	 * @return Graphics context of the back page, or null if the frame can not
+	 *         be drawn on right now.
+	 */
+	public final Graphics getDrawGraphics() {
+		if (bufferStrategy == null)
+			return null;
+		try {
+			Graphics graphics = bufferStrategy.getDrawGraphics();
+			Insets insets = getInsets();
+			graphics.translate(insets.left, insets.top);
+			return graphics;
+		} catch (IllegalStateException e) {
+			// Peer was lost (e.g. while resizing), start over with a new strategy.
+			createStrategy();
+			return null;
+		}
+	}
+
+	/**
+	 * Shows the page drawn with the graphics from {@link #getDrawGraphics()}.
+	 * If the accelerated buffers were restored while drawing their contents
+	 * are undefined, so the page is dropped and the next frame redraws it.
+	 *
+	 * @param graphics
+	 *            Graphics context of the drawn page.
+	 * @return True if the page was shown.
+	 */
+	public final boolean showDrawGraphics(final Graphics graphics) {
+		graphics.dispose();
+		if (bufferStrategy.contentsRestored())
+			return false;
+		bufferStrategy.show();
+		return !bufferStrategy.contentsLost();
+	}
 }
@@ -0,0 +1,123 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Fixed ring of off-screen frame buffers that are reused between frames.
+ * Buffers are only allocated again when the requested size changes, so a
+ * steady-state frame allocates no image memory. A ring of two buffers gives
+ * double buffering, three gives triple buffering.
+ *
+ * Buffers can be allocated at a fraction of the frame size, in which case
+ * each buffer also has a scaled graphics context that takes frame
+ * coordinates, while sprites are drawn in buffer pixels.
+ */
+final class FrameBufferRing {
+
+	/** Buffer images. */
+	private final BufferedImage[] images;
+	/** Graphics context of each buffer image, in buffer pixels. */
+	private final Graphics[] graphics;
+	/** Graphics context of each buffer image, in frame coordinates. */
+	private final Graphics[] scaledGraphics;
+	/** Frame pixels per buffer pixel. */
+	private final int scale;
+	/** Index of the buffer currently being drawn. */
+	private int index;
+	/** Width of the allocated buffers. */
+	private int width;
+	/** Height of the allocated buffers. */
+	private int height;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param depth
+	 *            Number of buffers in the ring.
+	 * @param scale
+	 *            Frame pixels per buffer pixel, 1 for full resolution.
+	 */
+	FrameBufferRing(final int depth, final int scale) {
+		this.images = new BufferedImage[Math.max(depth, 1)];
+		this.graphics = new Graphics[this.images.length];
+		this.scaledGraphics = new Graphics[this.images.length];
+		this.scale = Math.max(scale, 1);
+		this.index = 0;
+	}
+
+	/**
+	 * Swaps to the next buffer of the ring and clears it.
+	 *
+	 * @param width
+	 *            Width of the frame.
+	 * @param height
+	 *            Height of the frame.
+	 * @return Buffer to draw the next frame on.
+	 */
+	BufferedImage next(final int width, final int height) {
+		if (width != this.width || height != this.height
+				|| this.images[0] == null)
+			allocate(width, height);
+
+		this.index = (this.index + 1) % this.images.length;
+		BufferedImage image = this.images[this.index];
+		this.graphics[this.index].setColor(Color.BLACK);
+		this.graphics[this.index].fillRect(0, 0, image.getWidth(),
+				image.getHeight());
+		return image;
+	}
+
+	/**
+	 * Getter for the graphics of the buffer currently being drawn, taking
+	 * frame coordinates.
+	 *
+	 * @return Graphics context of the current buffer.
+	 */
+	Graphics currentGraphics() {
+		return this.scaledGraphics[this.index];
+	}
+
+	/**
+	 * Getter for the graphics of the buffer currently being drawn, taking
+	 * buffer pixel coordinates.
+	 *
+	 * @return Unscaled graphics context of the current buffer.
+	 */
+	Graphics currentPixelGraphics() {
+		return this.graphics[this.index];
+	}
+
+	/**
+	 * (Re)allocates every buffer of the ring for a new frame size.
+	 *
+	 * @param width
+	 *            Width of the frame.
+	 * @param height
+	 *            Height of the frame.
+	 */
+	private void allocate(final int width, final int height) {
+		for (int i = 0; i < this.images.length; i++) {
+			if (this.graphics[i] != null)
+				this.graphics[i].dispose();
+			if (this.scaledGraphics[i] != this.graphics[i])
+				this.scaledGraphics[i].dispose();
+			this.images[i] = new BufferedImage(
+					(width + this.scale - 1) / this.scale,
+					(height + this.scale - 1) / this.scale,
+					BufferedImage.TYPE_INT_RGB);
+			this.graphics[i] = this.images[i].getGraphics();
+			if (this.scale == 1) {
+				this.scaledGraphics[i] = this.graphics[i];
+			} else {
+				Graphics2D scaled = this.images[i].createGraphics();
+				scaled.scale(1.0 / this.scale, 1.0 / this.scale);
+				this.scaledGraphics[i] = scaled;
+			}
+		}
+		this.width = width;
+		this.height = height;
+	}
+}
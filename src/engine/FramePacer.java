@@ -0,0 +1,118 @@
+package engine;
+
+/**
+ * Decides which frames of a screen loop are drawn, so the updates keep
+ * their fixed rate when the machine can't also draw every frame.
+ *
+ * The pacer keeps rolling averages of how long an update and a draw take.
+ * As long as both fit in the time of a tick, every frame is drawn. Once
+ * they don't, frames are only drawn every few ticks, as many as needed for
+ * the updates and the draws to fit together, up to the interval given with
+ * -Dinvaders.maxDrawInterval. Frames that had updates but were not drawn
+ * are counted as dropped.
+ */
+public final class FramePacer {
+
+	/** Weight of the latest duration in the rolling averages, 1/2^n. */
+	private static final int SMOOTHING_SHIFT = 4;
+	/** Share of each tick spent on updates and draws, in 1/8. */
+	private static final int BUDGET_EIGHTHS = 7;
+
+	/** Time of a tick in nanoseconds. */
+	private final long tickNanos;
+	/** Most ticks between two drawn frames. */
+	private final int maxInterval;
+	/** Rolling average of the update time in nanoseconds. */
+	private long updateNanos;
+	/** Rolling average of the draw time in nanoseconds. */
+	private long drawNanos;
+	/** Ticks between two drawn frames. */
+	private int interval;
+	/** Ticks updated since the last drawn frame. */
+	private int ticksSinceDraw;
+	/** Number of frames drawn. */
+	private long drawnFrames;
+	/** Number of frames updated but not drawn. */
+	private long droppedFrames;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param tickNanos
+	 *            Time of a tick in nanoseconds.
+	 */
+	public FramePacer(final long tickNanos) {
+		this.tickNanos = tickNanos;
+		this.maxInterval = Math.max(Core.getMaxDrawInterval(), 1);
+		this.interval = 1;
+	}
+
+	/**
+	 * Records the duration of an update.
+	 *
+	 * @param nanos
+	 *            Time the update took in nanoseconds.
+	 */
+	public void updated(final long nanos) {
+		this.updateNanos += (nanos - this.updateNanos) >> SMOOTHING_SHIFT;
+		this.ticksSinceDraw++;
+	}
+
+	/**
+	 * Records the duration of a draw.
+	 *
+	 * @param nanos
+	 *            Time the draw took in nanoseconds.
+	 */
+	public void drawn(final long nanos) {
+		this.drawNanos += (nanos - this.drawNanos) >> SMOOTHING_SHIFT;
+		this.ticksSinceDraw = 0;
+		this.drawnFrames++;
+		this.interval = interval();
+	}
+
+	/**
+	 * Returns whether the frame whose updates just ran is drawn, and counts
+	 * it as dropped otherwise.
+	 *
+	 * @return True if the frame has to be drawn.
+	 */
+	public boolean shouldDraw() {
+		if (this.ticksSinceDraw >= this.interval)
+			return true;
+		this.droppedFrames++;
+		return false;
+	}
+
+	/**
+	 * Getter for the number of frames drawn.
+	 *
+	 * @return Number of frames drawn.
+	 */
+	public long getDrawnFrames() {
+		return this.drawnFrames;
+	}
+
+	/**
+	 * Getter for the number of frames updated but not drawn.
+	 *
+	 * @return Number of frames dropped.
+	 */
+	public long getDroppedFrames() {
+		return this.droppedFrames;
+	}
+
+	/**
+	 * Returns the fewest ticks between drawn frames for the average update
+	 * and draw times to fit in the budget of those ticks.
+	 *
+	 * @return Ticks between two drawn frames.
+	 */
+	private int interval() {
+		long spare = this.tickNanos * BUDGET_EIGHTHS / 8 - this.updateNanos;
+		if (spare <= 0)
+			return this.maxInterval;
+		long ticks = (this.drawNanos + spare - 1) / spare;
+		return (int) Math.min(Math.max(ticks, 1), this.maxInterval);
+	}
+}
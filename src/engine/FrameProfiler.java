@@ -0,0 +1,239 @@
+package engine;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Records how long each phase of a frame takes into fixed-bucket
+ * histograms, and summarizes them as p50, p99, p99.9 and max per phase.
+ *
+ * Buckets are log-linear: every power of two of nanoseconds is split into
+ * SUB_BUCKETS linear buckets, so percentiles are exact to within 1/16. The
+ * counters are atomic, so several threads can record into one profiler
+ * without locks, and recording allocates nothing. Profiling is off unless
+ * enabled with -Dinvaders.profile=true, or -Dinvaders.profileCsv=file to
+ * also append the summaries to a CSV file.
+ */
+public final class FrameProfiler {
+
+	/** Phases of a frame. */
+	public enum Phase {
+		/** Reading the keys and moving the ship. */
+		INPUT,
+		/** Whole update of the screen. */
+		UPDATE,
+		/** Collision checks. */
+		COLLISIONS,
+		/** Removal of bullets off screen. */
+		CLEAN_BULLETS,
+		/** Update of the enemy formation. */
+		FORMATION,
+		/** Whole drawing of the screen. */
+		DRAW,
+		/** Merge of the screens of both players. */
+		MERGE,
+		/** Showing or handing over the finished frame. */
+		COMPLETE_DRAWING
+	}
+
+	/** Bits of the linear buckets in each power of two. */
+	private static final int SUB_BITS = 4;
+	/** Linear buckets in each power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	/** Highest power of two of nanoseconds recorded, about 18 minutes. */
+	private static final int MAX_EXPONENT = 40;
+	/** Buckets of each histogram. */
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+	/** Percentiles given in the summary. */
+	private static final double[] PERCENTILES = { 0.5, 0.99, 0.999 };
+
+	/** Name of what is profiled, e.g. the level. */
+	private final String label;
+	/** If the durations are recorded. */
+	private final boolean enabled;
+	/** Bucket counts, BUCKETS per phase. */
+	private final AtomicLongArray buckets;
+	/** Longest duration of each phase. */
+	private final AtomicLongArray maxima;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param label
+	 *            Name of what is profiled, e.g. the level.
+	 */
+	public FrameProfiler(final String label) {
+		this.label = label;
+		this.enabled = Core.isProfiling();
+		int phases = this.enabled ? Phase.values().length : 0;
+		this.buckets = new AtomicLongArray(phases * BUCKETS);
+		this.maxima = new AtomicLongArray(phases);
+	}
+
+	/**
+	 * Returns the time a phase starts at.
+	 *
+	 * @return Current System.nanoTime, or 0 when profiling is off.
+	 */
+	public long start() {
+		return this.enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the duration of a phase that ends now.
+	 *
+	 * @param phase
+	 *            Phase that ended.
+	 * @param start
+	 *            Time the phase started at, as returned by start.
+	 */
+	public void record(final Phase phase, final long start) {
+		if (!this.enabled)
+			return;
+		long duration = Math.max(System.nanoTime() - start, 0);
+		this.buckets.incrementAndGet(phase.ordinal() * BUCKETS
+				+ bucket(duration));
+
+		long max = this.maxima.get(phase.ordinal());
+		while (duration > max
+				&& !this.maxima.compareAndSet(phase.ordinal(), max, duration))
+			max = this.maxima.get(phase.ordinal());
+	}
+
+	/**
+	 * Logs a summary of every phase recorded, and appends it to the CSV
+	 * file if one was given.
+	 *
+	 * @param logger
+	 *            Logger to write the summary to.
+	 */
+	public void dump(final Logger logger) {
+		if (!this.enabled)
+			return;
+
+		StringBuilder summary = new StringBuilder("Frame profile of ")
+				.append(this.label).append(" (ms):");
+		for (Phase phase : Phase.values()) {
+			long count = count(phase);
+			if (count == 0)
+				continue;
+			summary.append(String.format(Locale.ROOT,
+					"%n  %-16s n=%-7d p50=%.3f p99=%.3f p99.9=%.3f max=%.3f",
+					phase, count, percentile(phase, 0.5) / 1e6,
+					percentile(phase, 0.99) / 1e6,
+					percentile(phase, 0.999) / 1e6,
+					this.maxima.get(phase.ordinal()) / 1e6));
+		}
+		logger.info(summary.toString());
+
+		String csv = Core.getProfileCsv();
+		if (csv != null)
+			appendCsv(new File(csv), logger);
+	}
+
+	/**
+	 * Appends one row per recorded phase to a CSV file.
+	 *
+	 * @param file
+	 *            File to append to, created with a header if missing.
+	 * @param logger
+	 *            Logger to report failures to.
+	 */
+	private void appendCsv(final File file, final Logger logger) {
+		boolean header = !file.exists();
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+			if (header)
+				writer.println("label,phase,count,p50_ns,p99_ns,p999_ns,max_ns");
+			for (Phase phase : Phase.values()) {
+				long count = count(phase);
+				if (count == 0)
+					continue;
+				writer.print(this.label.replace(',', ' ') + "," + phase + ","
+						+ count);
+				for (double percentile : PERCENTILES)
+					writer.print("," + percentile(phase, percentile));
+				writer.println("," + this.maxima.get(phase.ordinal()));
+			}
+		} catch (IOException e) {
+			logger.warning("Couldn't write the frame profile to " + file
+					+ ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the number of durations recorded for a phase.
+	 *
+	 * @param phase
+	 *            Phase to count.
+	 * @return Number of durations recorded.
+	 */
+	public long count(final Phase phase) {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			count += this.buckets.get(phase.ordinal() * BUCKETS + i);
+		return count;
+	}
+
+	/**
+	 * Returns a percentile of the durations of a phase.
+	 *
+	 * @param phase
+	 *            Phase to look up.
+	 * @param percentile
+	 *            Percentile between 0 and 1, e.g. 0.99.
+	 * @return Upper bound in nanoseconds of the bucket holding the
+	 *         percentile, never above the longest duration.
+	 */
+	public long percentile(final Phase phase, final double percentile) {
+		long count = count(phase);
+		if (count == 0)
+			return 0;
+		long rank = Math.max((long) Math.ceil(percentile * count), 1);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.buckets.get(phase.ordinal() * BUCKETS + i);
+			if (seen >= rank)
+				return Math.min(upperBound(i),
+						this.maxima.get(phase.ordinal()));
+		}
+		return this.maxima.get(phase.ordinal());
+	}
+
+	/**
+	 * Returns the bucket of a duration.
+	 *
+	 * @param nanos
+	 *            Duration in nanoseconds.
+	 * @return Index of the bucket in a histogram.
+	 */
+	private static int bucket(final long nanos) {
+		if (nanos < SUB_BUCKETS)
+			return (int) nanos;
+		int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos),
+				MAX_EXPONENT);
+		int shift = exponent - SUB_BITS;
+		int sub = (int) Math.min((nanos >>> shift) - SUB_BUCKETS,
+				SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Returns the longest duration that falls in a bucket.
+	 *
+	 * @param bucket
+	 *            Index of the bucket in a histogram.
+	 * @return Duration in nanoseconds.
+	 */
+	private static long upperBound(final int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+}
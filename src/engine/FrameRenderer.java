@@ -0,0 +1,48 @@
+package engine;
+
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.image.BufferedImage;
+
+/**
+ * Presents frames on the game window, page flipping through its buffer
+ * strategy.
+ */
+final class FrameRenderer implements Renderer {
+
+	/** Window to present the frames on. */
+	private final Frame frame;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param frame
+	 *            Window to present the frames on.
+	 */
+	FrameRenderer(final Frame frame) {
+		this.frame = frame;
+	}
+
+	@Override
+	public Graphics getDrawGraphics() {
+		return this.frame.getDrawGraphics();
+	}
+
+	@Override
+	public boolean showDrawGraphics(final Graphics graphics) {
+		return this.frame.showDrawGraphics(graphics);
+	}
+
+	@Override
+	public void showImage(final BufferedImage image) {
+		Graphics frameGraphics = this.frame.getGraphics();
+		if (frameGraphics != null) {
+			Insets insets = this.frame.getInsets();
+			frameGraphics.drawImage(image, insets.left, insets.top,
+					this.frame.getWidth() - insets.left - insets.right,
+					this.frame.getHeight() - insets.top - insets.bottom,
+					this.frame);
+			frameGraphics.dispose();
+		}
+	}
+}
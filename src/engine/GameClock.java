@@ -0,0 +1,132 @@
+package engine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game time shared by every cooldown, advanced by a fixed step once per tick
+ * of the screen that owns it instead of read from the system clock.
+ *
+ * Only one screen loop ticks the clock at a time: in two player mode the
+ * TwoPlayerScreen owns it, and both player screens running in its threads
+ * read the same time. Everything checked during a tick sees the same time,
+ * late frames catch up tick by tick, and pausing the clock pauses every
+ * cooldown.
+ */
+public final class GameClock {
+
+	/** Singleton instance of the class. */
+	private static final GameClock instance = new GameClock();
+
+	/** Game time in nanoseconds, only written by the owner loop. */
+	private volatile long nanos;
+	/** Screen loop ticking the clock, null if none. */
+	private Object owner;
+	/** If ticks leave the time unchanged. */
+	private volatile boolean paused;
+
+	/**
+	 * Private constructor.
+	 */
+	private GameClock() {
+		this.nanos = 0;
+		this.paused = false;
+	}
+
+	/**
+	 * Returns shared instance of GameClock.
+	 *
+	 * @return Shared instance of GameClock.
+	 */
+	protected static GameClock getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Makes a screen loop the one ticking the clock, unless another loop
+	 * already does. A loop can acquire the clock again while it owns it.
+	 *
+	 * @param loop
+	 *            Screen loop asking for the clock.
+	 * @return True if the loop has to tick the clock.
+	 */
+	public synchronized boolean acquire(final Object loop) {
+		if (this.owner != null && this.owner != loop)
+			return false;
+		this.owner = loop;
+		return true;
+	}
+
+	/**
+	 * Stops a screen loop from ticking the clock.
+	 *
+	 * @param loop
+	 *            Screen loop that acquired the clock.
+	 */
+	public synchronized void release(final Object loop) {
+		if (this.owner == loop)
+			this.owner = null;
+	}
+
+	/**
+	 * Advances the game time by one tick, unless the clock is paused.
+	 *
+	 * @param tickNanos
+	 *            Duration of a tick in nanoseconds.
+	 */
+	public void tick(final long tickNanos) {
+		if (!this.paused)
+			this.nanos += tickNanos;
+	}
+
+	/**
+	 * Returns the game time.
+	 *
+	 * @return Game time in milliseconds.
+	 */
+	public long now() {
+		return TimeUnit.NANOSECONDS.toMillis(this.nanos);
+	}
+
+	/**
+	 * Returns the game time with its full resolution, as stored in replays.
+	 *
+	 * @return Game time in nanoseconds.
+	 */
+	long nanos() {
+		return this.nanos;
+	}
+
+	/**
+	 * Sets the game time, e.g. to the time a replayed session started at.
+	 * Only called while no screen loop ticks the clock.
+	 *
+	 * @param nanos
+	 *            Game time in nanoseconds.
+	 */
+	void setNanos(final long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Stops the game time until resume is called.
+	 */
+	public void pause() {
+		this.paused = true;
+	}
+
+	/**
+	 * Lets the game time advance again after pause.
+	 */
+	public void resume() {
+		this.paused = false;
+	}
+
+	/**
+	 * Returns whether the game time is stopped.
+	 *
+	 * @return True between pause and resume.
+	 */
+	public boolean isPaused() {
+		return this.paused;
+	}
+}
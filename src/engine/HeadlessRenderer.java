@@ -0,0 +1,102 @@
+package engine;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Renderer without a window, for benchmarks and for checking rendering
+ * under java.awt.headless. Frames are drawn on the back buffers and only
+ * counted, or also hashed so two runs can be compared frame by frame.
+ */
+public final class HeadlessRenderer implements Renderer {
+
+	/** Seed of the frame hashes. */
+	private static final int SEED = 0;
+	/** Color bytes of a pixel. */
+	private static final int COLOR_MASK = 0xFFFFFF;
+
+	/** If the frames are hashed. */
+	private final boolean hashFrames;
+	/** Pixels of frames without an integer RGB raster. */
+	private int[] pixels;
+	/** Number of frames presented. */
+	private long frames;
+	/** Hash of the last frame presented. */
+	private int frameHash;
+	/** Hash of the sequence of frame hashes. */
+	private int sequenceHash;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param hashFrames
+	 *            If every presented frame is hashed.
+	 */
+	public HeadlessRenderer(final boolean hashFrames) {
+		this.hashFrames = hashFrames;
+		this.pixels = new int[0];
+	}
+
+	@Override
+	public Graphics getDrawGraphics() {
+		return null;
+	}
+
+	@Override
+	public boolean showDrawGraphics(final Graphics graphics) {
+		graphics.dispose();
+		return true;
+	}
+
+	@Override
+	public void showImage(final BufferedImage image) {
+		this.frames++;
+		if (!this.hashFrames)
+			return;
+
+		// The unused top byte of integer RGB pixels is left undefined by
+		// Java2D, so only the color bytes are hashed.
+		if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+			int[] data = ((DataBufferInt) image.getRaster().getDataBuffer())
+					.getData();
+			this.frameHash = XxHash32.hash(data, 0, data.length, SEED, COLOR_MASK);
+		} else {
+			int width = image.getWidth();
+			int height = image.getHeight();
+			if (this.pixels.length != width * height)
+				this.pixels = new int[width * height];
+			image.getRGB(0, 0, width, height, this.pixels, 0, width);
+			this.frameHash = XxHash32.hash(this.pixels, 0, this.pixels.length,
+					SEED, COLOR_MASK);
+		}
+		this.sequenceHash = this.sequenceHash * 31 + this.frameHash;
+	}
+
+	/**
+	 * Getter for the number of frames presented.
+	 *
+	 * @return Number of frames presented.
+	 */
+	public long getFrames() {
+		return this.frames;
+	}
+
+	/**
+	 * Getter for the hash of the last frame presented.
+	 *
+	 * @return xxHash32 of the pixels of the last frame.
+	 */
+	public int getFrameHash() {
+		return this.frameHash;
+	}
+
+	/**
+	 * Getter for the hash of every frame presented so far.
+	 *
+	 * @return Hash of the sequence of frame hashes.
+	 */
+	public int getSequenceHash() {
+		return this.sequenceHash;
+	}
+}
@@ -0,0 +1,267 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws HUD text in one font without creating Strings. Labels and numbers
+ * are composed into a reused line of characters, numbers digit by digit
+ * from their value, and the line is measured from cached advances.
+ *
+ * Through Java2D the line is drawn with a single drawChars call. With the
+ * raster renderer every glyph is filled from a mask pre-rendered once for
+ * the font, in the color the text is drawn in.
+ */
+final class HudText {
+
+	/** First pre-rendered character. */
+	private static final char FIRST_CHAR = ' ';
+	/** Last pre-rendered character. */
+	private static final char LAST_CHAR = '~';
+	/** Maximum length of a line. */
+	private static final int MAX_LENGTH = 64;
+
+	/** Glyph masks of every pre-rendered character, in any color. */
+	private static final class Glyphs {
+		/** Glyph masks, null for characters that draw nothing. */
+		private final long[][][] masks;
+		/** Width of each glyph mask. */
+		private final int[] widths;
+		/** Horizontal offset of each glyph mask from the pen position. */
+		private final int[] offsetsX;
+		/** Vertical offset of each glyph mask from the baseline. */
+		private final int[] offsetsY;
+
+		/**
+		 * Constructor, renders every glyph.
+		 *
+		 * @param font
+		 *            Font of the glyphs.
+		 */
+		private Glyphs(final Font font) {
+			int count = LAST_CHAR - FIRST_CHAR + 1;
+			this.masks = new long[count][][];
+			this.widths = new int[count];
+			this.offsetsX = new int[count];
+			this.offsetsY = new int[count];
+
+			BufferedImage scratch = new BufferedImage(1, 1,
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics2D scratchGraphics = scratch.createGraphics();
+			for (int i = 0; i < count; i++) {
+				String glyph = String.valueOf((char) (FIRST_CHAR + i));
+				Rectangle bounds = font.createGlyphVector(
+						scratchGraphics.getFontRenderContext(), glyph)
+						.getPixelBounds(null, 0, 0);
+				if (bounds.isEmpty())
+					continue;
+				bounds.grow(1, 1);
+
+				BufferedImage image = new BufferedImage(bounds.width,
+						bounds.height, BufferedImage.TYPE_INT_ARGB);
+				Graphics graphics = image.getGraphics();
+				graphics.setFont(font);
+				graphics.setColor(Color.WHITE);
+				graphics.drawString(glyph, -bounds.x, -bounds.y);
+				graphics.dispose();
+
+				this.masks[i] = SpriteRaster.pack(image);
+				this.widths[i] = bounds.width;
+				this.offsetsX[i] = bounds.x;
+				this.offsetsY[i] = bounds.y;
+			}
+			scratchGraphics.dispose();
+		}
+	}
+
+	/** Line of text being composed. */
+	final class Line {
+		/** Characters of the line. */
+		private final char[] chars = new char[MAX_LENGTH];
+		/** Number of characters in the line. */
+		private int length;
+
+		/**
+		 * Appends a text to the line.
+		 *
+		 * @param text
+		 *            Text to append.
+		 * @return This line.
+		 */
+		Line append(final String text) {
+			int count = Math.min(text.length(), MAX_LENGTH - this.length);
+			text.getChars(0, count, this.chars, this.length);
+			this.length += count;
+			return this;
+		}
+
+		/**
+		 * Appends a number to the line, the same way String.format("%0nd")
+		 * would print it.
+		 *
+		 * @param value
+		 *            Number to append.
+		 * @param minDigits
+		 *            Minimum number of characters, padded with leading zeros.
+		 * @return This line.
+		 */
+		Line append(final int value, final int minDigits) {
+			long rest = Math.abs((long) value);
+			int digits = 1;
+			for (long r = rest / 10; r > 0; r /= 10)
+				digits++;
+			digits = Math.max(digits, value < 0 ? minDigits - 1 : minDigits);
+
+			if (value < 0 && this.length < MAX_LENGTH)
+				this.chars[this.length++] = '-';
+			int end = Math.min(this.length + digits, MAX_LENGTH);
+			for (int i = this.length + digits - 1; i >= this.length; i--) {
+				if (i < end)
+					this.chars[i] = (char) ('0' + rest % 10);
+				rest /= 10;
+			}
+			this.length = end;
+			return this;
+		}
+
+		/**
+		 * Returns the width of the line.
+		 *
+		 * @return Width of the line in pixels.
+		 */
+		int width() {
+			int width = 0;
+			for (int i = 0; i < this.length; i++) {
+				char c = this.chars[i];
+				if (c < FIRST_CHAR || c > LAST_CHAR)
+					return metrics.charsWidth(this.chars, 0, this.length);
+				width += advances[c - FIRST_CHAR];
+			}
+			return width;
+		}
+
+		/**
+		 * Draws the line.
+		 *
+		 * @param graphics
+		 *            Graphics to draw with.
+		 * @param buffer
+		 *            Buffer to fill with the raster renderer, null to draw
+		 *            through Java2D.
+		 * @param color
+		 *            Color of the text.
+		 * @param positionX
+		 *            Coordinates for the left side of the text.
+		 * @param positionY
+		 *            Coordinates of the baseline of the text.
+		 */
+		void draw(final Graphics graphics, final BufferedImage buffer,
+				final Color color, final int positionX, final int positionY) {
+			if (buffer != null && fill(buffer, color, positionX, positionY))
+				return;
+			graphics.setFont(font);
+			graphics.setColor(color);
+			graphics.drawChars(this.chars, 0, this.length, positionX,
+					positionY);
+		}
+
+		/**
+		 * Fills the glyphs of the line straight into a buffer.
+		 *
+		 * @param buffer
+		 *            Buffer to fill.
+		 * @param color
+		 *            Color of the text.
+		 * @param positionX
+		 *            Coordinates for the left side of the text.
+		 * @param positionY
+		 *            Coordinates of the baseline of the text.
+		 * @return False if the line has to be drawn through Java2D instead.
+		 */
+		private boolean fill(final BufferedImage buffer, final Color color,
+				final int positionX, final int positionY) {
+			if (buffer.getType() != BufferedImage.TYPE_INT_RGB
+					|| color.getAlpha() != 255)
+				return false;
+			for (int i = 0; i < this.length; i++)
+				if (this.chars[i] < FIRST_CHAR || this.chars[i] > LAST_CHAR)
+					return false;
+
+			Glyphs fontGlyphs = glyphs();
+			int x = positionX;
+			for (int i = 0; i < this.length; i++) {
+				int glyph = this.chars[i] - FIRST_CHAR;
+				if (fontGlyphs.masks[glyph] != null)
+					SpriteRaster.draw(buffer, fontGlyphs.masks[glyph],
+							fontGlyphs.widths[glyph], color,
+							x + fontGlyphs.offsetsX[glyph],
+							positionY + fontGlyphs.offsetsY[glyph]);
+				x += advances[glyph];
+			}
+			return true;
+		}
+	}
+
+	/** Font of the text. */
+	private final Font font;
+	/** Metrics of the font. */
+	private final FontMetrics metrics;
+	/** Advance of each pre-rendered character. */
+	private final int[] advances;
+	/** Glyph masks of the font, null until the text is first filled. */
+	private volatile Glyphs glyphs;
+	/** Line reused by each drawing thread. */
+	private final ThreadLocal<Line> lines;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param font
+	 *            Font of the text.
+	 */
+	HudText(final Font font) {
+		this.font = font;
+		this.lines = ThreadLocal.withInitial(Line::new);
+
+		BufferedImage scratch = new BufferedImage(1, 1,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics graphics = scratch.getGraphics();
+		this.metrics = graphics.getFontMetrics(font);
+		this.advances = new int[LAST_CHAR - FIRST_CHAR + 1];
+		for (int i = 0; i < this.advances.length; i++)
+			this.advances[i] = this.metrics.charWidth((char) (FIRST_CHAR + i));
+		graphics.dispose();
+	}
+
+	/**
+	 * Returns the line of the calling thread, emptied.
+	 *
+	 * @return Empty line to compose a text in.
+	 */
+	Line line() {
+		Line line = this.lines.get();
+		line.length = 0;
+		return line;
+	}
+
+	/**
+	 * Returns the glyph masks of the font, rendering them the first time.
+	 * The masks only record which pixels are lit, the color is given when
+	 * they are filled. Threads rendering them at once get equal masks.
+	 *
+	 * @return Glyph masks of the font.
+	 */
+	private Glyphs glyphs() {
+		Glyphs fontGlyphs = this.glyphs;
+		if (fontGlyphs == null) {
+			fontGlyphs = new Glyphs(this.font);
+			this.glyphs = fontGlyphs;
+		}
+		return fontGlyphs;
+	}
+}
@@ -2,9 +2,18 @@ package engine;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.io.IOException;
+import java.util.Arrays;
+
+import screen.Screen;
 
 /**
  * Manages keyboard input for the provided screen.
+ *
+ * Key events only change the pending key state. Screens see it once per
+ * tick, when the screen loop calls tick, so every check made during an
+ * update sees the same keys and a replay can record or play back exactly
+ * what each update saw.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
@@ -12,17 +21,25 @@ import java.awt.event.KeyListener;
 public final class InputManager implements KeyListener {
 
 	/** Number of recognised keys. */
-	private static final int NUM_KEYS = 256;
+	static final int NUM_KEYS = 256;
 	/** Array with the keys marked as pressed or not. */
 	private static boolean[] keys;
+	/** Keys marked as pressed or not by the key events. */
+	private static boolean[] pendingKeys;
 	/** Singleton instance of the class. */
 	private static InputManager instance;
 
+	/** Records the keys of every tick, null if not recording. */
+	private ReplayRecorder recorder;
+	/** Source of the keys of every tick, null to use the key events. */
+	private InputSource source;
+
 	/**
 	 * Private constructor.
 	 */
 	private InputManager() {
 		keys = new boolean[NUM_KEYS];
+		pendingKeys = new boolean[NUM_KEYS];
 	}
 
 	/**
@@ -47,6 +64,82 @@ public final class InputManager implements KeyListener {
 		return keys[keyCode];
 	}
 
+	/**
+	 * Makes the keys pressed since the last tick visible to the screens,
+	 * or the ones of the input source while one is played back. Called by
+	 * the screen loop before each update.
+	 *
+	 * @param screen
+	 *            Screen about to be updated.
+	 * @return False once the input source has no more ticks.
+	 */
+	public boolean tick(final Screen screen) {
+		if (this.source != null)
+			return this.source.next(keys, screen);
+
+		System.arraycopy(pendingKeys, 0, keys, 0, NUM_KEYS);
+		if (this.recorder != null) {
+			try {
+				this.recorder.record(keys, screen);
+			} catch (IOException e) {
+				Core.getLogger().warning("Couldn't write the replay: "
+						+ e.getMessage());
+				stopRecording();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Starts recording the keys of every tick.
+	 *
+	 * @param path
+	 *            Path of the replay file.
+	 * @param header
+	 *            Settings of the recorded session.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	void startRecording(final String path, final ReplayFormat.Header header)
+			throws IOException {
+		stopRecording();
+		this.recorder = new ReplayRecorder(path, header, NUM_KEYS);
+	}
+
+	/**
+	 * Stops recording and closes the replay file, if recording.
+	 */
+	void stopRecording() {
+		if (this.recorder == null)
+			return;
+		try {
+			this.recorder.close();
+		} catch (IOException e) {
+			Core.getLogger().warning("Couldn't close the replay: "
+					+ e.getMessage());
+		}
+		this.recorder = null;
+	}
+
+	/**
+	 * Starts playing back the keys of an input source instead of the key
+	 * events.
+	 *
+	 * @param input
+	 *            Source of the keys of every tick, e.g. a replay.
+	 */
+	void startPlayback(final InputSource input) {
+		Arrays.fill(keys, false);
+		this.source = input;
+	}
+
+	/**
+	 * Stops playing back an input source and goes back to the key events.
+	 */
+	void stopPlayback() {
+		this.source = null;
+	}
+
 	/**
 	 * Changes the state of the key to pressed.
 	 * 
@@ -56,7 +149,7 @@ public final class InputManager implements KeyListener {
 	@Override
 	public void keyPressed(final KeyEvent key) {
 		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
-			keys[key.getKeyCode()] = true;
+			pendingKeys[key.getKeyCode()] = true;
 	}
 
 	/**
@@ -68,7 +161,7 @@ public final class InputManager implements KeyListener {
 	@Override
 	public void keyReleased(final KeyEvent key) {
 		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
-			keys[key.getKeyCode()] = false;
+			pendingKeys[key.getKeyCode()] = false;
 	}
 
 	/**
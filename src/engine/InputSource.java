@@ -0,0 +1,22 @@
+package engine;
+
+import screen.Screen;
+
+/**
+ * Source of the keys pressed on each tick, used instead of the key events
+ * of the window, e.g. a replay being played back or a bot.
+ */
+public interface InputSource {
+
+	/**
+	 * Sets the keys pressed on the next tick.
+	 *
+	 * @param keys
+	 *            Keys pressed on the previous tick, indexed by key code, to
+	 *            change into the keys pressed on this tick.
+	 * @param screen
+	 *            Screen about to be updated.
+	 * @return False to stop the screen instead of updating it.
+	 */
+	boolean next(boolean[] keys, Screen screen);
+}
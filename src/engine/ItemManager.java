@@ -3,10 +3,10 @@ package engine;
 import entity.EnemyShip;
 import entity.EnemyShipFormation;
 import entity.Ship;
+import entity.EntityPool;
 import entity.Barrier;
 
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.AbstractMap.SimpleEntry;
@@ -45,6 +45,8 @@ public class ItemManager {
     private final EnemyShipFormation enemyShipFormation;
     /** Set of Barriers in game screen. */
     private final Set<Barrier> barriers;
+    /** Barriers removed from the game screen, reused by the barrier item. */
+    private final EntityPool<Barrier> barrierPool;
     /** Application logger. */
     private final Logger logger;
     /** Singleton instance of SoundManager */
@@ -77,15 +79,17 @@ public class ItemManager {
      * @param ship Player's ship.
      * @param enemyShipFormation Formation of enemy ships.
      * @param barriers Set of barriers in game screen.
+     * @param barrierPool Barriers removed from the game screen.
      * @param balance 1p -1.0, 2p 1.0, both 0.0
      *
      */
-    public ItemManager(Ship ship, EnemyShipFormation enemyShipFormation, Set<Barrier> barriers, int WIDTH, int HEIGHT, float balance) {
+    public ItemManager(Ship ship, EnemyShipFormation enemyShipFormation, Set<Barrier> barriers, EntityPool<Barrier> barrierPool, int WIDTH, int HEIGHT, float balance) {
         this.shotNum = 1;
-        this.rand = new Random();
+        this.rand = Core.getRandom();
         this.ship = ship;
         this.enemyShipFormation = enemyShipFormation;
         this.barriers = barriers;
+        this.barrierPool = barrierPool;
         this.logger = Core.getLogger();
         this.WIDTH = WIDTH;
         this.HEIGHT = HEIGHT;
@@ -159,19 +163,7 @@ public class ItemManager {
 
             for (int j = 0; j <= rowSize - 3; j++) {
 
-                int currentCnt = 0;
-
-                for (int x = i; x < i + 3; x++) {
-
-                    List<EnemyShip> subRowShips = enemyships.get(x);
-
-                    for (int y = j; y < j + 3; y++) {
-                        EnemyShip ship = subRowShips.get(y);
-
-                        if (ship != null && !ship.isDestroyed())
-                            currentCnt++;
-                    }
-                }
+                int currentCnt = this.enemyShipFormation.queryCells(i, j, i + 2, j + 2);
 
                 if (currentCnt > maxCnt) {
                     maxCnt = currentCnt;
@@ -181,23 +173,12 @@ public class ItemManager {
             }
         }
 
-        List<EnemyShip> targetEnemyShips = new ArrayList<>();
-        for (int i = maxRow; i < maxRow + 3; i++) {
-            List<EnemyShip> subRowShips = enemyships.get(i);
-            for (int j = maxCol; j < maxCol + 3; j++) {
-                EnemyShip ship = subRowShips.get(j);
-
-                if (ship != null && !ship.isDestroyed())
-                    targetEnemyShips.add(ship);
-            }
-        }
-
-        if (!targetEnemyShips.isEmpty()) {
-            for (EnemyShip destroyedShip : targetEnemyShips) {
-                addScore += destroyedShip.getPointValue();
-                addShipsDestroyed++;
-                enemyShipFormation.destroy(destroyedShip, balance);
-            }
+        int targetCount = this.enemyShipFormation.queryCells(maxRow, maxCol, maxRow + 2, maxCol + 2);
+        for (int i = 0; i < targetCount; i++) {
+            EnemyShip destroyedShip = this.enemyShipFormation.result(i);
+            addScore += destroyedShip.getPointValue();
+            addShipsDestroyed++;
+            enemyShipFormation.destroy(destroyedShip, balance);
         }
 
         return new SimpleEntry<>(addScore, addShipsDestroyed);
@@ -226,12 +207,12 @@ public class ItemManager {
         }
 
         if (destroyRow != -1) {
-            for (List<EnemyShip> column : enemyShips) {
-                if (column.get(destroyRow) != null && !column.get(destroyRow).isDestroyed()) {
-                    addScore += column.get(destroyRow).getPointValue();
-                    addShipsDestroyed++;
-                    enemyShipFormation.destroy(column.get(destroyRow), balance);
-                }
+            int targetCount = this.enemyShipFormation.queryCells(0, destroyRow, enemyShips.size() - 1, destroyRow);
+            for (int i = 0; i < targetCount; i++) {
+                EnemyShip destroyedShip = this.enemyShipFormation.result(i);
+                addScore += destroyedShip.getPointValue();
+                addShipsDestroyed++;
+                enemyShipFormation.destroy(destroyedShip, balance);
             }
         }
 
@@ -249,17 +230,30 @@ public class ItemManager {
         int BarrierY = HEIGHT - 70;
         int middle = WIDTH / 2 - 39;
         int range = 200;
+        this.barrierPool.recycleAll(this.barriers);
         this.barriers.clear();
 
-        this.barriers.add(new Barrier(middle, BarrierY));
-        this.barriers.add(new Barrier(middle - range, BarrierY));
-        this.barriers.add(new Barrier(middle + range, BarrierY));
+        addBarrier(middle, BarrierY);
+        addBarrier(middle - range, BarrierY);
+        addBarrier(middle + range, BarrierY);
         logger.info("Barrier created at positions: (" + middle + ", " + (BarrierY) + "), ("
                 + (middle - range) + ", " + (BarrierY) + "), ("
                 + (middle + range) + ", " + (BarrierY) + ")");
         return null;
     }
 
+    /**
+     * Adds a barrier from the pool.
+     *
+     * @param positionX Position of the barrier in the X axis.
+     * @param positionY Position of the barrier in the Y axis.
+     */
+    private void addBarrier(int positionX, int positionY) {
+        Barrier barrier = this.barrierPool.get();
+        barrier.reset(positionX, positionY);
+        this.barriers.add(barrier);
+    }
+
     /**
      * Operate Ghost item.
      *
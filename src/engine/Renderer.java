@@ -0,0 +1,37 @@
+package engine;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+/**
+ * Output the frames drawn by the DrawManager are presented on, a window or
+ * an offscreen target.
+ */
+public interface Renderer {
+
+	/**
+	 * Returns graphics to draw the next frame straight on, with its origin
+	 * at the upper left corner of the drawable area.
+	 *
+	 * @return Graphics context of the next page, or null if the frame has to
+	 *         be drawn on a back buffer and presented with showImage.
+	 */
+	Graphics getDrawGraphics();
+
+	/**
+	 * Presents the page drawn with the graphics from getDrawGraphics.
+	 *
+	 * @param graphics
+	 *            Graphics context of the drawn page.
+	 * @return True if the page was presented, false if it was dropped.
+	 */
+	boolean showDrawGraphics(Graphics graphics);
+
+	/**
+	 * Presents a frame drawn on a back buffer.
+	 *
+	 * @param image
+	 *            Drawn frame.
+	 */
+	void showImage(BufferedImage image);
+}
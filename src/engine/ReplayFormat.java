@@ -0,0 +1,210 @@
+package engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Layout of replay files, shared by the recorder and the player.
+ *
+ * A file starts with a header holding everything a session depends on
+ * besides the keys: the seed of the session random, the game time it
+ * started at, the screen size and the settings and upgrades chosen before
+ * it. The header is followed by records, each one a varint made of the
+ * ticks since the previous record shifted left by TYPE_BITS, and its type:
+ * <ul>
+ * <li>TOGGLES, the keys that changed state on that tick.</li>
+ * <li>KEYFRAME, written every KEYFRAME_INTERVAL ticks instead of toggles:
+ * the tick number, every key pressed on that tick and a hash of the screen
+ * state, to resynchronize and to check the playback has not diverged.</li>
+ * <li>END, placed after the last recorded tick.</li>
+ * </ul>
+ * Key codes in a record are sorted and stored as varint deltas, so a
+ * typical tick with no change takes no space at all.
+ */
+final class ReplayFormat {
+
+	/** First bytes of every replay file, "INVR". */
+	static final int MAGIC = 0x494E5652;
+	/** Version of the layout. */
+	static final int VERSION = 1;
+	/** Ticks between keyframes, 10 seconds at 60 fps. */
+	static final int KEYFRAME_INTERVAL = 600;
+	/** Bits of the record type in each record header. */
+	static final int TYPE_BITS = 2;
+	/** Record of the keys that changed state. */
+	static final int TOGGLES = 0;
+	/** Record of the full key state and the screen state hash. */
+	static final int KEYFRAME = 1;
+	/** Record after the last tick. */
+	static final int END = 2;
+
+	/** Everything a recorded session depends on besides the keys. */
+	record Header(long seed, long clockNanos, int fps, int width,
+			int height, int difficulty, int shipType, int coin,
+			int bulletLevel, int shotLevel, int livesLevel, int coinLevel) {
+
+		/**
+		 * Writes the header at the start of a file.
+		 *
+		 * @param output
+		 *            Stream to write to.
+		 * @throws IOException
+		 *             If the stream can't be written.
+		 */
+		void write(final DataOutputStream output) throws IOException {
+			output.writeInt(MAGIC);
+			writeVarLong(output, VERSION);
+			output.writeLong(this.seed);
+			writeVarLong(output, this.clockNanos);
+			writeVarLong(output, this.fps);
+			writeVarLong(output, this.width);
+			writeVarLong(output, this.height);
+			writeVarLong(output, this.difficulty);
+			writeVarLong(output, this.shipType);
+			writeVarLong(output, this.coin);
+			writeVarLong(output, this.bulletLevel);
+			writeVarLong(output, this.shotLevel);
+			writeVarLong(output, this.livesLevel);
+			writeVarLong(output, this.coinLevel);
+		}
+
+		/**
+		 * Reads the header at the start of a file.
+		 *
+		 * @param input
+		 *            Stream to read from.
+		 * @return Header of the file.
+		 * @throws IOException
+		 *             If the stream is not a replay of this version.
+		 */
+		static Header read(final DataInputStream input) throws IOException {
+			if (input.readInt() != MAGIC)
+				throw new IOException("Not a replay file.");
+			long version = readVarLong(input);
+			if (version != VERSION)
+				throw new IOException("Unsupported replay version " + version
+						+ ".");
+			return new Header(input.readLong(), readVarLong(input),
+					readVarInt(input), readVarInt(input), readVarInt(input),
+					readVarInt(input), readVarInt(input), readVarInt(input),
+					readVarInt(input), readVarInt(input), readVarInt(input),
+					readVarInt(input));
+		}
+	}
+
+	/**
+	 * Constructor, not called.
+	 */
+	private ReplayFormat() {
+
+	}
+
+	/**
+	 * Writes a non negative number in 7 bit groups, low group first, with
+	 * the high bit of each byte set when more groups follow.
+	 *
+	 * @param output
+	 *            Stream to write to.
+	 * @param value
+	 *            Number to write.
+	 * @throws IOException
+	 *             If the stream can't be written.
+	 */
+	static void writeVarLong(final DataOutputStream output, final long value)
+			throws IOException {
+		long rest = value;
+		while ((rest & ~0x7FL) != 0) {
+			output.write((int) (rest & 0x7F) | 0x80);
+			rest >>>= 7;
+		}
+		output.write((int) rest);
+	}
+
+	/**
+	 * Reads a number written by writeVarLong.
+	 *
+	 * @param input
+	 *            Stream to read from.
+	 * @return Number read.
+	 * @throws IOException
+	 *             If the stream ends or the number is malformed.
+	 */
+	static long readVarLong(final DataInputStream input) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = input.read();
+			if (b < 0)
+				throw new EOFException();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed varint.");
+	}
+
+	/**
+	 * Reads a number written by writeVarLong that fits an int.
+	 *
+	 * @param input
+	 *            Stream to read from.
+	 * @return Number read.
+	 * @throws IOException
+	 *             If the stream ends or the number is malformed.
+	 */
+	static int readVarInt(final DataInputStream input) throws IOException {
+		long value = readVarLong(input);
+		if (value > Integer.MAX_VALUE)
+			throw new IOException("Malformed varint.");
+		return (int) value;
+	}
+
+	/**
+	 * Writes a set of key codes as a count followed by sorted deltas.
+	 *
+	 * @param output
+	 *            Stream to write to.
+	 * @param codes
+	 *            Key codes, sorted.
+	 * @param count
+	 *            Number of key codes.
+	 * @throws IOException
+	 *             If the stream can't be written.
+	 */
+	static void writeKeys(final DataOutputStream output, final int[] codes,
+			final int count) throws IOException {
+		writeVarLong(output, count);
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			writeVarLong(output, codes[i] - previous);
+			previous = codes[i];
+		}
+	}
+
+	/**
+	 * Reads a set of key codes written by writeKeys.
+	 *
+	 * @param input
+	 *            Stream to read from.
+	 * @param codes
+	 *            Array to read the key codes into.
+	 * @return Number of key codes read.
+	 * @throws IOException
+	 *             If the stream ends or the codes are out of range.
+	 */
+	static int readKeys(final DataInputStream input, final int[] codes)
+			throws IOException {
+		int count = readVarInt(input);
+		if (count > codes.length)
+			throw new IOException("Malformed key set.");
+		int code = 0;
+		for (int i = 0; i < count; i++) {
+			code += readVarInt(input);
+			if (code >= codes.length)
+				throw new IOException("Malformed key set.");
+			codes[i] = code;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,199 @@
+package engine;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import screen.Screen;
+
+/**
+ * Plays back the key state of every tick recorded in a replay file, and
+ * checks at each keyframe that the screen state matches the recording.
+ */
+final class ReplayPlayer implements InputSource {
+
+	/** Application logger. */
+	private final Logger logger;
+	/** Stream of the replay file. */
+	private final DataInputStream input;
+	/** Settings of the recorded session. */
+	private final ReplayFormat.Header header;
+	/** Key codes of the record being read. */
+	private final int[] codes;
+	/** Number of ticks played back. */
+	private long tick;
+	/** Tick of the next record. */
+	private long recordTick;
+	/** Type of the next record. */
+	private int recordType;
+	/** If the playback has diverged from the recording. */
+	private boolean diverged;
+
+	/**
+	 * Constructor, opens the file and reads its header.
+	 *
+	 * @param path
+	 *            Path of the replay file.
+	 * @param keyCount
+	 *            Number of recognised keys.
+	 * @throws IOException
+	 *             If the file can't be read or is not a replay.
+	 */
+	ReplayPlayer(final String path, final int keyCount) throws IOException {
+		this.logger = Core.getLogger();
+		this.input = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(path)));
+		this.codes = new int[keyCount];
+		try {
+			this.header = ReplayFormat.Header.read(this.input);
+		} catch (IOException e) {
+			this.input.close();
+			throw e;
+		}
+		readRecord();
+	}
+
+	/**
+	 * Getter for the settings of the recorded session.
+	 *
+	 * @return Header of the replay file.
+	 */
+	ReplayFormat.Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Sets the keys to their recorded state for the next tick.
+	 *
+	 * @param keys
+	 *            Key state to overwrite.
+	 * @param screen
+	 *            Screen updated on this tick.
+	 * @return False once every recorded tick has been played back.
+	 */
+	@Override
+	public boolean next(final boolean[] keys, final Screen screen) {
+		try {
+			while (this.recordType != ReplayFormat.END
+					&& this.recordTick == this.tick) {
+				if (this.recordType == ReplayFormat.KEYFRAME)
+					readKeyframe(keys, screen);
+				else
+					readToggles(keys);
+				readRecord();
+			}
+		} catch (IOException e) {
+			this.logger.warning("Replay stopped at tick " + this.tick + ": "
+					+ e.getMessage());
+			this.recordType = ReplayFormat.END;
+			this.recordTick = this.tick;
+		}
+		if (this.recordType == ReplayFormat.END
+				&& this.recordTick <= this.tick)
+			return false;
+		this.tick++;
+		return true;
+	}
+
+	/**
+	 * Returns whether every recorded tick has been played back.
+	 *
+	 * @return True once next has returned false.
+	 */
+	boolean isFinished() {
+		return this.recordType == ReplayFormat.END
+				&& this.recordTick <= this.tick;
+	}
+
+	/**
+	 * Returns whether a keyframe found the screen state different from the
+	 * recorded one.
+	 *
+	 * @return True if the playback has diverged from the recording.
+	 */
+	boolean hasDiverged() {
+		return this.diverged;
+	}
+
+	/**
+	 * Closes the file.
+	 */
+	void close() {
+		try {
+			this.input.close();
+		} catch (IOException e) {
+			this.logger.warning("Couldn't close the replay file.");
+		}
+	}
+
+	/**
+	 * Reads the header of the next record. A file cut short, e.g. by the
+	 * game being closed while recording, ends after its last full record.
+	 *
+	 * @throws IOException
+	 *             If the record is malformed.
+	 */
+	private void readRecord() throws IOException {
+		long record;
+		try {
+			record = ReplayFormat.readVarLong(this.input);
+		} catch (EOFException e) {
+			this.recordType = ReplayFormat.END;
+			this.recordTick = this.tick + 1;
+			return;
+		}
+		this.recordType = (int) (record & ((1 << ReplayFormat.TYPE_BITS) - 1));
+		this.recordTick += record >>> ReplayFormat.TYPE_BITS;
+		if (this.recordType > ReplayFormat.END)
+			throw new IOException("Unknown record type " + this.recordType
+					+ ".");
+	}
+
+	/**
+	 * Reads a keyframe into the keys, and checks the screen state against
+	 * the recorded one.
+	 *
+	 * @param keys
+	 *            Key state to overwrite.
+	 * @param screen
+	 *            Screen updated on this tick.
+	 * @throws IOException
+	 *             If the record is malformed.
+	 */
+	private void readKeyframe(final boolean[] keys, final Screen screen)
+			throws IOException {
+		long keyframeTick = ReplayFormat.readVarLong(this.input);
+		int count = ReplayFormat.readKeys(this.input, this.codes);
+		long stateHash = this.input.readLong();
+		if (keyframeTick != this.tick)
+			throw new IOException("Keyframe of tick " + keyframeTick
+					+ " found at tick " + this.tick + ".");
+
+		Arrays.fill(keys, false);
+		for (int i = 0; i < count; i++)
+			keys[this.codes[i]] = true;
+		if (!this.diverged && screen.stateHash() != stateHash) {
+			this.diverged = true;
+			this.logger.warning("Replay diverged from the recording at tick "
+					+ this.tick + ".");
+		}
+	}
+
+	/**
+	 * Reads a record of toggled keys into the keys.
+	 *
+	 * @param keys
+	 *            Key state to change.
+	 * @throws IOException
+	 *             If the record is malformed.
+	 */
+	private void readToggles(final boolean[] keys) throws IOException {
+		int count = ReplayFormat.readKeys(this.input, this.codes);
+		for (int i = 0; i < count; i++)
+			keys[this.codes[i]] = !keys[this.codes[i]];
+	}
+}
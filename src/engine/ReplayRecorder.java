@@ -0,0 +1,111 @@
+package engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import screen.Screen;
+
+/**
+ * Records the key state of every tick of a session to a replay file, in
+ * the layout described by ReplayFormat.
+ */
+final class ReplayRecorder {
+
+	/** Stream of the replay file. */
+	private final DataOutputStream output;
+	/** Key state of the previous tick. */
+	private final boolean[] previous;
+	/** Key codes of the record being written. */
+	private final int[] codes;
+	/** Number of ticks recorded. */
+	private long tick;
+	/** Tick of the last record written. */
+	private long recordTick;
+
+	/**
+	 * Constructor, creates the file and writes its header.
+	 *
+	 * @param path
+	 *            Path of the replay file, replaced if it exists.
+	 * @param header
+	 *            Settings of the recorded session.
+	 * @param keyCount
+	 *            Number of recognised keys.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	ReplayRecorder(final String path, final ReplayFormat.Header header,
+			final int keyCount) throws IOException {
+		this.output = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(path)));
+		this.previous = new boolean[keyCount];
+		this.codes = new int[keyCount];
+		header.write(this.output);
+	}
+
+	/**
+	 * Records the key state of a tick, before the screen is updated.
+	 *
+	 * @param keys
+	 *            Keys pressed on this tick.
+	 * @param screen
+	 *            Screen updated on this tick.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	void record(final boolean[] keys, final Screen screen) throws IOException {
+		if (this.tick % ReplayFormat.KEYFRAME_INTERVAL == 0) {
+			int count = 0;
+			for (int i = 0; i < keys.length; i++)
+				if (keys[i])
+					this.codes[count++] = i;
+			writeRecord(ReplayFormat.KEYFRAME);
+			ReplayFormat.writeVarLong(this.output, this.tick);
+			ReplayFormat.writeKeys(this.output, this.codes, count);
+			this.output.writeLong(screen.stateHash());
+			// A crash loses at most the ticks since the last keyframe.
+			this.output.flush();
+		} else {
+			int count = 0;
+			for (int i = 0; i < keys.length; i++)
+				if (keys[i] != this.previous[i])
+					this.codes[count++] = i;
+			if (count > 0) {
+				writeRecord(ReplayFormat.TOGGLES);
+				ReplayFormat.writeKeys(this.output, this.codes, count);
+			}
+		}
+		System.arraycopy(keys, 0, this.previous, 0, keys.length);
+		this.tick++;
+	}
+
+	/**
+	 * Ends the recording after the last tick and closes the file.
+	 *
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	void close() throws IOException {
+		try {
+			writeRecord(ReplayFormat.END);
+		} finally {
+			this.output.close();
+		}
+	}
+
+	/**
+	 * Writes the header of a record placed on the current tick.
+	 *
+	 * @param type
+	 *            Type of the record.
+	 * @throws IOException
+	 *             If the file can't be written.
+	 */
+	private void writeRecord(final int type) throws IOException {
+		ReplayFormat.writeVarLong(this.output,
+				(this.tick - this.recordTick) << ReplayFormat.TYPE_BITS | type);
+		this.recordTick = this.tick;
+	}
+}
@@ -0,0 +1,405 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Bounded cache of pre-rotated sprites, so drawing a rotating entity is a
+ * single blit instead of a transformed draw of the whole sprite.
+ *
+ * Angles are quantized to a fixed number of steps per turn, and frames are
+ * found by sprite and step in a table, so a lookup allocates nothing. Every
+ * rotating sprite is drawn in a single color, so a frame is only kept as
+ * its packed mask, which the raster renderer and collisions use as is,
+ * plus a one bit image in the color it is drawn with for Java2D, made the
+ * first time Java2D draws it. The least recently used frames are dropped
+ * once the frames take more than the byte budget, so the budget should fit
+ * a full turn of every rotating sprite for frames to be reused from one
+ * turn to the next.
+ */
+final class RotationCache {
+
+	/** Sprite pre-rotated around a pivot. */
+	static final class Rotated {
+
+		/** Sprite of the frame. */
+		private final SpriteType spriteType;
+		/** Rotation step of the frame. */
+		private final int step;
+		/** Pivot of the rotation, relative to the left side of the sprite. */
+		private final int pivotX;
+		/** Pivot of the rotation, relative to the upper side of the sprite. */
+		private final int pivotY;
+		/** Packed mask of the rotated sprite. */
+		private final long[][] mask;
+		/** Width of the rotated sprite. */
+		private final int width;
+		/** Position of the frame relative to the unrotated sprite. */
+		private final int offsetX;
+		/** Position of the frame relative to the unrotated sprite. */
+		private final int offsetY;
+		/** One bit image of the mask for Java2D, null until first drawn. */
+		private volatile BufferedImage image;
+		/** Bytes taken by the frame. */
+		private long bytes;
+		/** Frame used before this one, null if this is the oldest. */
+		private Rotated older;
+		/** Frame used after this one, null if this is the newest. */
+		private Rotated newer;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param spriteType
+		 *            Sprite of the frame.
+		 * @param step
+		 *            Rotation step of the frame.
+		 * @param pivotX
+		 *            Horizontal pivot of the rotation.
+		 * @param pivotY
+		 *            Vertical pivot of the rotation.
+		 * @param mask
+		 *            Packed mask of the rotated sprite.
+		 * @param width
+		 *            Width of the rotated sprite.
+		 * @param offsetX
+		 *            Position of the frame in the x-axis, relative to the
+		 *            unrotated sprite.
+		 * @param offsetY
+		 *            Position of the frame in the y-axis, relative to the
+		 *            unrotated sprite.
+		 */
+		private Rotated(final SpriteType spriteType, final int step,
+				final int pivotX, final int pivotY, final long[][] mask,
+				final int width, final int offsetX, final int offsetY) {
+			this.spriteType = spriteType;
+			this.step = step;
+			this.pivotX = pivotX;
+			this.pivotY = pivotY;
+			this.mask = mask;
+			this.width = width;
+			this.offsetX = offsetX;
+			this.offsetY = offsetY;
+			this.bytes = (long) mask.length
+					* (mask.length == 0 ? 0 : mask[0].length) * Long.BYTES;
+		}
+
+		/**
+		 * Getter for the packed mask of the rotated sprite.
+		 *
+		 * @return Rows of the mask.
+		 */
+		long[][] mask() {
+			return this.mask;
+		}
+
+		/**
+		 * Getter for the width of the rotated sprite.
+		 *
+		 * @return Width of the mask.
+		 */
+		int width() {
+			return this.width;
+		}
+
+		/**
+		 * Getter for the position of the frame in the x-axis.
+		 *
+		 * @return Offset from the left side of the unrotated sprite.
+		 */
+		int offsetX() {
+			return this.offsetX;
+		}
+
+		/**
+		 * Getter for the position of the frame in the y-axis.
+		 *
+		 * @return Offset from the upper side of the unrotated sprite.
+		 */
+		int offsetY() {
+			return this.offsetY;
+		}
+	}
+
+	/** Pre-rasterized sprites to rotate. */
+	private final SpriteAtlas spriteAtlas;
+	/** Number of rotation steps in a full turn. */
+	private final int steps;
+	/** Most bytes the frames may take. */
+	private final long maxBytes;
+	/** Frames by sprite and step, a row allocated for each sprite rotated. */
+	private final Rotated[][] frames;
+	/** Least recently used frame, dropped first. */
+	private Rotated oldest;
+	/** Most recently used frame. */
+	private Rotated newest;
+	/** Bytes taken by the frames. */
+	private long bytes;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param spriteAtlas
+	 *            Pre-rasterized sprites to rotate.
+	 * @param steps
+	 *            Number of rotation steps in a full turn.
+	 * @param maxBytes
+	 *            Most bytes the rotated frames may take.
+	 */
+	RotationCache(final SpriteAtlas spriteAtlas, final int steps,
+			final long maxBytes) {
+		this.spriteAtlas = spriteAtlas;
+		this.steps = Math.max(steps, 1);
+		this.maxBytes = Math.max(maxBytes, 1);
+		this.frames = new Rotated[SpriteType.values().length][];
+	}
+
+	/**
+	 * Returns a sprite rotated around a pivot, rotating it the first time
+	 * its quantized angle is requested. Finding a frame already rotated
+	 * allocates nothing.
+	 *
+	 * @param spriteType
+	 *            Sprite to rotate.
+	 * @param angle
+	 *            Rotation in degrees.
+	 * @param pivotX
+	 *            Pivot of the rotation, relative to the left side of the
+	 *            sprite.
+	 * @param pivotY
+	 *            Pivot of the rotation, relative to the upper side of the
+	 *            sprite.
+	 * @return Rotated sprite and where to draw it, relative to the unrotated
+	 *         sprite.
+	 */
+	Rotated get(final SpriteType spriteType, final double angle,
+			final int pivotX, final int pivotY) {
+		int step = (int) Math.floorMod(Math.round(angle * this.steps / 360),
+				(long) this.steps);
+		synchronized (this) {
+			Rotated[] row = this.frames[spriteType.ordinal()];
+			Rotated rotated = row == null ? null : row[step];
+			if (rotated != null && rotated.pivotX == pivotX
+					&& rotated.pivotY == pivotY) {
+				touch(rotated);
+				return rotated;
+			}
+		}
+
+		Rotated rotated = rotate(spriteType, step, pivotX, pivotY);
+		synchronized (this) {
+			Rotated[] row = this.frames[spriteType.ordinal()];
+			if (row == null) {
+				row = new Rotated[this.steps];
+				this.frames[spriteType.ordinal()] = row;
+			}
+			if (row[step] != null)
+				drop(row[step]);
+			row[step] = rotated;
+			this.bytes += rotated.bytes;
+			touch(rotated);
+			trim();
+		}
+		return rotated;
+	}
+
+	/**
+	 * Returns the one bit image of a frame in a color for Java2D, making it
+	 * the first time it is drawn or when the color changed.
+	 *
+	 * @param rotated
+	 *            Frame to draw.
+	 * @param color
+	 *            Color of the sprite.
+	 * @return Image of the frame, transparent where the sprite is empty.
+	 */
+	BufferedImage image(final Rotated rotated, final Color color) {
+		BufferedImage image = rotated.image;
+		if (image != null
+				&& ((IndexColorModel) image.getColorModel()).getRGB(1)
+						== color.getRGB())
+			return image;
+
+		image = paint(rotated.mask, rotated.width, color);
+		synchronized (this) {
+			long imageBytes = (long) image.getHeight()
+					* ((image.getWidth() + 7) / 8);
+			if (rotated.image == null) {
+				rotated.bytes += imageBytes;
+				if (isCached(rotated)) {
+					this.bytes += imageBytes;
+					trim();
+				}
+			}
+			rotated.image = image;
+		}
+		return image;
+	}
+
+	/**
+	 * Getter for the bytes taken by the frames.
+	 *
+	 * @return Bytes of the masks and images kept.
+	 */
+	synchronized long getBytes() {
+		return this.bytes;
+	}
+
+	/**
+	 * Makes a frame the most recently used one.
+	 *
+	 * @param rotated
+	 *            Frame used.
+	 */
+	private void touch(final Rotated rotated) {
+		if (this.newest == rotated)
+			return;
+		unlink(rotated);
+		rotated.older = this.newest;
+		if (this.newest != null)
+			this.newest.newer = rotated;
+		this.newest = rotated;
+		if (this.oldest == null)
+			this.oldest = rotated;
+	}
+
+	/**
+	 * Drops the least recently used frames until the frames fit the byte
+	 * budget, keeping at least the most recently used one.
+	 */
+	private void trim() {
+		while (this.bytes > this.maxBytes && this.oldest != this.newest) {
+			Rotated eldest = this.oldest;
+			drop(eldest);
+			this.frames[eldest.spriteType.ordinal()][eldest.step] = null;
+		}
+	}
+
+	/**
+	 * Removes a frame from the use order and its bytes from the total.
+	 *
+	 * @param rotated
+	 *            Frame dropped.
+	 */
+	private void drop(final Rotated rotated) {
+		unlink(rotated);
+		this.bytes -= rotated.bytes;
+	}
+
+	/**
+	 * Takes a frame out of the use order, if it is in it.
+	 *
+	 * @param rotated
+	 *            Frame to take out.
+	 */
+	private void unlink(final Rotated rotated) {
+		if (rotated.older != null)
+			rotated.older.newer = rotated.newer;
+		else if (this.oldest == rotated)
+			this.oldest = rotated.newer;
+		if (rotated.newer != null)
+			rotated.newer.older = rotated.older;
+		else if (this.newest == rotated)
+			this.newest = rotated.older;
+		rotated.older = null;
+		rotated.newer = null;
+	}
+
+	/**
+	 * Checks if a frame is still kept by the cache.
+	 *
+	 * @param rotated
+	 *            Frame to check.
+	 * @return True if it was not dropped.
+	 */
+	private boolean isCached(final Rotated rotated) {
+		Rotated[] row = this.frames[rotated.spriteType.ordinal()];
+		return row != null && row[rotated.step] == rotated;
+	}
+
+	/**
+	 * Rotates a sprite and packs the rotated sprite into a mask.
+	 *
+	 * @param spriteType
+	 *            Sprite to rotate.
+	 * @param step
+	 *            Rotation step.
+	 * @param pivotX
+	 *            Horizontal pivot of the rotation.
+	 * @param pivotY
+	 *            Vertical pivot of the rotation.
+	 * @return Rotated sprite.
+	 */
+	private Rotated rotate(final SpriteType spriteType, final int step,
+			final int pivotX, final int pivotY) {
+		BufferedImage sprite = this.spriteAtlas.get(spriteType, Color.WHITE);
+		AffineTransform rotation = AffineTransform.getRotateInstance(
+				Math.PI * 2 * step / this.steps, pivotX, pivotY);
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+		int[][] corners = { { 0, 0 }, { sprite.getWidth(), 0 },
+				{ 0, sprite.getHeight() },
+				{ sprite.getWidth(), sprite.getHeight() } };
+		for (int[] corner : corners) {
+			Point2D point = rotation.transform(
+					new Point2D.Double(corner[0], corner[1]), null);
+			minX = Math.min(minX, point.getX());
+			minY = Math.min(minY, point.getY());
+			maxX = Math.max(maxX, point.getX());
+			maxY = Math.max(maxY, point.getY());
+		}
+		int offsetX = (int) Math.floor(minX) - 1;
+		int offsetY = (int) Math.floor(minY) - 1;
+		int width = (int) Math.ceil(maxX) + 1 - offsetX;
+		int height = (int) Math.ceil(maxY) + 1 - offsetY;
+
+		// Only the mask is kept, the rotated image is dropped once packed.
+		BufferedImage image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.translate(-offsetX, -offsetY);
+		graphics.transform(rotation);
+		graphics.drawImage(sprite, 0, 0, null);
+		graphics.dispose();
+
+		return new Rotated(spriteType, step, pivotX, pivotY,
+				SpriteRaster.pack(image), width, offsetX, offsetY);
+	}
+
+	/**
+	 * Paints a mask into a one bit image, transparent where the mask is
+	 * clear and in a color where it is set.
+	 *
+	 * @param mask
+	 *            Rows of the mask.
+	 * @param width
+	 *            Width of the mask.
+	 * @param color
+	 *            Color of the set pixels.
+	 * @return Image of the mask.
+	 */
+	private static BufferedImage paint(final long[][] mask, final int width,
+			final Color color) {
+		IndexColorModel colorModel = new IndexColorModel(1, 2,
+				new byte[] { 0, (byte) color.getRed() },
+				new byte[] { 0, (byte) color.getGreen() },
+				new byte[] { 0, (byte) color.getBlue() },
+				new byte[] { 0, (byte) color.getAlpha() });
+		BufferedImage image = new BufferedImage(Math.max(width, 1),
+				Math.max(mask.length, 1), BufferedImage.TYPE_BYTE_BINARY,
+				colorModel);
+		WritableRaster raster = image.getRaster();
+		for (int y = 0; y < mask.length; y++)
+			for (int x = 0; x < width; x++)
+				if ((mask[y][x >> 6] >>> (x & 63) & 1L) != 0)
+					raster.setSample(x, y, 0, 1);
+		return image;
+	}
+}
@@ -0,0 +1,178 @@
+package engine;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import screen.GameScreen;
+
+/**
+ * Runs game sessions side by side, each one a chain of levels played one
+ * after another on its own virtual thread.
+ *
+ * A session starts its next level as soon as the previous one returns, so
+ * nothing has to poll for finished levels. Virtual threads unmount while a
+ * level waits for its next tick, so the number of platform threads stays
+ * the number of cores however many sessions run. The first session to fail
+ * stops every other one, and its failure is rethrown by await.
+ */
+public final class SessionScheduler implements AutoCloseable {
+
+	/** Levels of a session. */
+	public interface Levels {
+
+		/**
+		 * Returns the screen of the next level of a session.
+		 *
+		 * @param gameState
+		 *            Game state at the start of the level.
+		 * @return Screen of the level, or null once the session is over.
+		 */
+		GameScreen next(GameState gameState);
+	}
+
+	/** Creates a virtual thread for each session. */
+	private final ThreadFactory threadFactory;
+	/** Threads of every session started. */
+	private final List<Thread> threads;
+	/** Results of every session started, in order. */
+	private final List<CompletableFuture<GameState>> sessions;
+	/** Number of sessions still running. */
+	private final AtomicInteger running;
+	/** First failure of a session, null if none failed. */
+	private final AtomicReference<Throwable> failure;
+	/** If the sessions have to stop after their current level. */
+	private volatile boolean cancelled;
+
+	/**
+	 * Constructor.
+	 */
+	public SessionScheduler() {
+		this.threadFactory = Thread.ofVirtual().name("session-", 0).factory();
+		this.threads = new CopyOnWriteArrayList<Thread>();
+		this.sessions = new CopyOnWriteArrayList<CompletableFuture<GameState>>();
+		this.running = new AtomicInteger();
+		this.failure = new AtomicReference<Throwable>();
+	}
+
+	/**
+	 * Starts a session.
+	 *
+	 * @param gameState
+	 *            Game state at the start of the first level.
+	 * @param levels
+	 *            Levels of the session.
+	 * @return Game state after the last level of the session, or after the
+	 *         level it was stopped on.
+	 */
+	public Future<GameState> start(final GameState gameState,
+			final Levels levels) {
+		CompletableFuture<GameState> session = new CompletableFuture<GameState>();
+		Thread thread = this.threadFactory.newThread(() -> {
+			try {
+				session.complete(play(gameState, levels));
+			} catch (Throwable e) {
+				session.completeExceptionally(e);
+			} finally {
+				this.running.decrementAndGet();
+			}
+		});
+		this.running.incrementAndGet();
+		this.sessions.add(session);
+		this.threads.add(thread);
+		thread.start();
+		return session;
+	}
+
+	/**
+	 * Returns whether every session has ended, or one of them failed.
+	 *
+	 * @return True once no session is running.
+	 */
+	public boolean isFinished() {
+		return this.running.get() == 0;
+	}
+
+	/**
+	 * Waits until every session has ended.
+	 *
+	 * @throws InterruptedException
+	 *             If the thread is interrupted while waiting.
+	 * @throws ExecutionException
+	 *             With the failure of the first session that failed.
+	 */
+	public void await() throws InterruptedException, ExecutionException {
+		for (Future<GameState> session : this.sessions) {
+			try {
+				session.get();
+			} catch (ExecutionException e) {
+				// Rethrown below, once every session has stopped.
+			}
+		}
+		Throwable cause = this.failure.get();
+		if (cause != null)
+			throw new ExecutionException(cause);
+	}
+
+	/**
+	 * Stops every session still running and waits for their threads to end.
+	 */
+	@Override
+	public void close() {
+		cancel();
+		boolean interrupted = false;
+		for (Thread thread : this.threads) {
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Plays the levels of a session until it is over or cancelled.
+	 *
+	 * @param gameState
+	 *            Game state at the start of the first level.
+	 * @param levels
+	 *            Levels of the session.
+	 * @return Game state after the last level.
+	 */
+	private GameState play(final GameState gameState, final Levels levels) {
+		GameState state = gameState;
+		try {
+			while (!this.cancelled) {
+				GameScreen level = levels.next(state);
+				if (level == null)
+					break;
+				level.initialize();
+				state = level.call();
+				state = new GameState(state, state.getLevel() + 1);
+			}
+			return state;
+		} catch (RuntimeException | Error e) {
+			if (this.failure.compareAndSet(null, e))
+				cancel();
+			throw e;
+		}
+	}
+
+	/**
+	 * Makes every session stop, interrupting the level it is playing.
+	 */
+	private void cancel() {
+		this.cancelled = true;
+		for (Thread thread : this.threads)
+			thread.interrupt();
+	}
+}
@@ -0,0 +1,171 @@
+package engine;
+
+import entity.EntityPools;
+import entity.Ship;
+import entity.Wallet;
+import screen.GameScreen;
+import screen.Screen;
+
+/**
+ * Plays games without a window, sound or waiting, updating the game screen
+ * as fast as the CPU allows, e.g. for balance testing and soak runs.
+ *
+ * The keys of every tick come from an input source, such as a bot or a
+ * replay, and the random numbers from a seed, so the same source and seed
+ * always play the same game. Simulations share the input manager and the
+ * game clock, so only one runs at a time.
+ */
+public final class Simulation {
+
+	/** Width of the simulated screen. */
+	private static final int WIDTH = 600;
+	/** Height of the simulated screen. */
+	private static final int HEIGHT = 650;
+	/** Ticks per second of game time. */
+	private static final int FPS = 60;
+
+	/** Ship the games are played with. */
+	private final Ship.ShipType shipType;
+	/** Upgrades bought by the player. */
+	private final Wallet wallet;
+	/** Difficulty of the games, EASY(0), NORMAL(1) or HARD(2). */
+	private final int difficulty;
+	/** Source of the keys of every tick. */
+	private final InputSource input;
+	/** Maximum number of ticks simulated. */
+	private final long maxTicks;
+	/** Number of ticks simulated. */
+	private long ticks;
+	/** If the input source or the tick limit stopped the simulation. */
+	private boolean stopped;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param shipType
+	 *            Ship the games are played with.
+	 * @param wallet
+	 *            Upgrades bought by the player.
+	 * @param difficulty
+	 *            Difficulty of the games, EASY(0), NORMAL(1) or HARD(2).
+	 * @param input
+	 *            Source of the keys of every tick.
+	 * @param maxTicks
+	 *            Maximum number of ticks simulated.
+	 */
+	public Simulation(final Ship.ShipType shipType, final Wallet wallet,
+			final int difficulty, final InputSource input,
+			final long maxTicks) {
+		this.shipType = shipType;
+		this.wallet = wallet;
+		this.difficulty = difficulty;
+		this.input = input;
+		this.maxTicks = maxTicks;
+	}
+
+	/**
+	 * Plays a game from the first level until the ship runs out of lives,
+	 * the way the game screens are chained when playing.
+	 *
+	 * @param seed
+	 *            Seed of the random numbers of the game.
+	 * @return Game state after the last level, or at the level the input
+	 *         source or the tick limit stopped the game on.
+	 */
+	public GameState play(final long seed) {
+		Core.getRandom().setSeed(seed);
+		int maxLives = this.wallet.getLives_lv() + 2;
+		GameState gameState = new GameState(1, 0, this.shipType, maxLives,
+				0, 0, 0, "", 0, 0, 0, 0, 0);
+		GameSettings gameSettings = new GameSettings(4, 4, 60, 2500);
+		EntityPools pools = new EntityPools();
+
+		do {
+			// One extra live every few levels.
+			boolean bonusLife = gameState.getLevel()
+					% Core.EXTRA_LIFE_FRECUENCY == 0
+					&& gameState.getLivesRemaining() < maxLives;
+			gameSettings = gameSettings.LevelSettings(
+					gameSettings.getFormationWidth(),
+					gameSettings.getFormationHeight(),
+					gameSettings.getBaseSpeed(),
+					gameSettings.getShootingFrecuency(),
+					gameState.getLevel(), this.difficulty);
+
+			gameState = playLevel(gameState, gameSettings, bonusLife, pools);
+			if (!this.stopped)
+				gameState = new GameState(gameState, gameState.getLevel() + 1);
+		} while (gameState.getLivesRemaining() > 0 && !this.stopped);
+		return gameState;
+	}
+
+	/**
+	 * Plays a single level.
+	 *
+	 * @param gameState
+	 *            Game state at the start of the level.
+	 * @param gameSettings
+	 *            Settings of the level.
+	 * @param bonusLife
+	 *            Checks if a bonus life is awarded this level.
+	 * @param pools
+	 *            Pools of the game the level is played in.
+	 * @return Game state at the end of the level.
+	 */
+	public GameState playLevel(final GameState gameState,
+			final GameSettings gameSettings, final boolean bonusLife,
+			final EntityPools pools) {
+		InputManager inputManager = Core.getInputManager();
+		Core.setSimulating(true);
+		inputManager.startPlayback(this::next);
+		try {
+			GameScreen screen = new GameScreen(gameState, gameSettings,
+					bonusLife, WIDTH, HEIGHT, FPS, this.wallet, pools);
+			screen.initialize();
+			screen.run();
+			return screen.getGameState();
+		} finally {
+			inputManager.stopPlayback();
+			Core.setSimulating(false);
+		}
+	}
+
+	/**
+	 * Getter for the number of ticks simulated.
+	 *
+	 * @return Ticks simulated by every game of this simulation.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * Returns whether the input source or the tick limit stopped the
+	 * simulation.
+	 *
+	 * @return True if no more ticks will be simulated.
+	 */
+	public boolean isStopped() {
+		return this.stopped;
+	}
+
+	/**
+	 * Sets the keys of the next tick from the input source, until the tick
+	 * limit is reached.
+	 *
+	 * @param keys
+	 *            Keys to change into the keys pressed on this tick.
+	 * @param screen
+	 *            Screen about to be updated.
+	 * @return False once the simulation is stopped.
+	 */
+	private boolean next(final boolean[] keys, final Screen screen) {
+		if (this.stopped || this.ticks >= this.maxTicks
+				|| !this.input.next(keys, screen)) {
+			this.stopped = true;
+			return false;
+		}
+		this.ticks++;
+		return true;
+	}
+}
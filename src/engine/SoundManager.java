@@ -51,6 +51,10 @@ public class SoundManager {
         logger.info("Started loading sound resources.");
 
         soundEnabled = false;
+        if (Core.isSimulating()) {
+            logger.info("Sounds disabled while simulating.");
+            return;
+        }
         try {
             preloadSounds();
 
@@ -0,0 +1,240 @@
+package engine;
+
+import java.util.Arrays;
+
+import entity.Entity;
+
+/**
+ * Uniform grid of square cells over an area, listing the entities that
+ * overlap each cell, so a collision check only looks at the entities near
+ * what it checks instead of all of them.
+ *
+ * The grid is rebuilt every tick: entities are added with add and sorted
+ * into their cells by build, with a counting sort over flat arrays that are
+ * only reallocated when the grid outgrows them. An entity overlapping
+ * several cells is listed in each of them. Entities outside the area are
+ * kept in its border cells. A query lists every entity sharing a cell with
+ * a box once, in the order the entities were added, and allocates nothing.
+ *
+ * @param <T>
+ *            Type of the entities in the grid.
+ */
+public final class SpatialGrid<T extends Entity> {
+
+	/** Initial capacity of the entity arrays. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Size of a cell side. */
+	private final int cellSize;
+	/** Number of cell columns. */
+	private final int columns;
+	/** Number of cell rows. */
+	private final int rows;
+	/** Start of the entries of each cell, and their end at the next cell. */
+	private final int[] cellStarts;
+	/** Entities added, in order. */
+	private Entity[] entities;
+	/** First and last column, then row, overlapped by each entity. */
+	private int[] spans;
+	/** Indexes of the entities listed in each cell, cell after cell. */
+	private int[] entries;
+	/** Number of entities added. */
+	private int size;
+	/** Indexes of the entities found by the last query. */
+	private int[] results;
+	/** Number of entities found by the last query. */
+	private int resultCount;
+	/** Number of the last query each entity was found by. */
+	private int[] foundBy;
+	/** Number of the last query. */
+	private int queryNumber;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param width
+	 *            Width of the area covered.
+	 * @param height
+	 *            Height of the area covered.
+	 * @param cellSize
+	 *            Size of a cell side, around the size of the entities.
+	 */
+	public SpatialGrid(final int width, final int height, final int cellSize) {
+		this.cellSize = Math.max(cellSize, 1);
+		this.columns = Math.max((width + this.cellSize - 1) / this.cellSize, 1);
+		this.rows = Math.max((height + this.cellSize - 1) / this.cellSize, 1);
+		this.cellStarts = new int[this.columns * this.rows + 1];
+		this.entities = new Entity[INITIAL_CAPACITY];
+		this.spans = new int[INITIAL_CAPACITY * 4];
+		this.entries = new int[INITIAL_CAPACITY];
+		this.results = new int[INITIAL_CAPACITY];
+		this.foundBy = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Empties the grid before the entities of a tick are added.
+	 */
+	public void clear() {
+		Arrays.fill(this.entities, 0, this.size, null);
+		this.size = 0;
+		this.resultCount = 0;
+		Arrays.fill(this.cellStarts, 0);
+	}
+
+	/**
+	 * Adds an entity at its current position. It is found by queries once
+	 * build is called.
+	 *
+	 * @param entity
+	 *            Entity to add.
+	 */
+	public void add(final T entity) {
+		if (this.size == this.entities.length) {
+			int capacity = this.size * 2;
+			this.entities = Arrays.copyOf(this.entities, capacity);
+			this.spans = Arrays.copyOf(this.spans, capacity * 4);
+			this.results = Arrays.copyOf(this.results, capacity);
+			this.foundBy = Arrays.copyOf(this.foundBy, capacity);
+		}
+		int span = this.size * 4;
+		this.spans[span] = column(entity.getPositionX());
+		this.spans[span + 1] = column(entity.getPositionX() + entity.getWidth());
+		this.spans[span + 2] = row(entity.getPositionY());
+		this.spans[span + 3] = row(entity.getPositionY() + entity.getHeight());
+		this.foundBy[this.size] = 0;
+		this.entities[this.size++] = entity;
+	}
+
+	/**
+	 * Sorts the entities added into the cells they overlap, keeping the
+	 * order they were added in within each cell.
+	 */
+	public void build() {
+		int[] starts = this.cellStarts;
+		Arrays.fill(starts, 0);
+		for (int i = 0; i < this.size; i++) {
+			int span = i * 4;
+			for (int row = this.spans[span + 2]; row <= this.spans[span + 3]; row++)
+				for (int column = this.spans[span]; column <= this.spans[span + 1]; column++)
+					starts[row * this.columns + column + 1]++;
+		}
+		for (int cell = 1; cell < starts.length; cell++)
+			starts[cell] += starts[cell - 1];
+		int entryCount = starts[starts.length - 1];
+		if (this.entries.length < entryCount)
+			this.entries = new int[Math.max(entryCount,
+					this.entries.length * 2)];
+
+		// Fill each cell from its start, moving the starts to the cell ends.
+		for (int i = 0; i < this.size; i++) {
+			int span = i * 4;
+			for (int row = this.spans[span + 2]; row <= this.spans[span + 3]; row++)
+				for (int column = this.spans[span]; column <= this.spans[span + 1]; column++)
+					this.entries[starts[row * this.columns + column]++] = i;
+		}
+		for (int cell = starts.length - 1; cell > 0; cell--)
+			starts[cell] = starts[cell - 1];
+		starts[0] = 0;
+	}
+
+	/**
+	 * Finds the entities sharing a cell with the box of an entity. Only
+	 * they can collide with it.
+	 *
+	 * @param entity
+	 *            Entity to find the neighbours of.
+	 * @return Number of entities found, read with result.
+	 */
+	public int query(final Entity entity) {
+		return query(entity.getPositionX(), entity.getPositionY(),
+				entity.getWidth(), entity.getHeight());
+	}
+
+	/**
+	 * Finds the entities sharing a cell with a box. Only they can overlap
+	 * it.
+	 *
+	 * @param positionX
+	 *            Position of the box in the x-axis.
+	 * @param positionY
+	 *            Position of the box in the y-axis.
+	 * @param width
+	 *            Width of the box.
+	 * @param height
+	 *            Height of the box.
+	 * @return Number of entities found, read with result.
+	 */
+	public int query(final int positionX, final int positionY,
+			final int width, final int height) {
+		this.resultCount = 0;
+		if (this.size == 0)
+			return 0;
+		if (++this.queryNumber == 0) {
+			Arrays.fill(this.foundBy, 0, this.size, 0);
+			this.queryNumber = 1;
+		}
+
+		int lastColumn = column(positionX + width);
+		int lastRow = row(positionY + height);
+		for (int row = row(positionY); row <= lastRow; row++)
+			for (int column = column(positionX); column <= lastColumn; column++) {
+				int cell = row * this.columns + column;
+				for (int entry = this.cellStarts[cell];
+						entry < this.cellStarts[cell + 1]; entry++) {
+					int index = this.entries[entry];
+					if (this.foundBy[index] != this.queryNumber) {
+						this.foundBy[index] = this.queryNumber;
+						this.results[this.resultCount++] = index;
+					}
+				}
+			}
+
+		// Few entities are found, insertion sort puts them in added order.
+		for (int i = 1; i < this.resultCount; i++) {
+			int index = this.results[i];
+			int j = i - 1;
+			while (j >= 0 && this.results[j] > index) {
+				this.results[j + 1] = this.results[j];
+				j--;
+			}
+			this.results[j + 1] = index;
+		}
+		return this.resultCount;
+	}
+
+	/**
+	 * Returns an entity found by the last query.
+	 *
+	 * @param index
+	 *            Index of the result, below the number returned by query.
+	 * @return Entity found.
+	 */
+	@SuppressWarnings("unchecked")
+	public T result(final int index) {
+		return (T) this.entities[this.results[index]];
+	}
+
+	/**
+	 * Returns the column of a position in the x-axis.
+	 *
+	 * @param positionX
+	 *            Position in the x-axis.
+	 * @return Column, clamped to the grid.
+	 */
+	private int column(final int positionX) {
+		return Math.min(Math.max(Math.floorDiv(positionX, this.cellSize), 0),
+				this.columns - 1);
+	}
+
+	/**
+	 * Returns the row of a position in the y-axis.
+	 *
+	 * @param positionY
+	 *            Position in the y-axis.
+	 * @return Row, clamped to the grid.
+	 */
+	private int row(final int positionY) {
+		return Math.min(Math.max(Math.floorDiv(positionY, this.cellSize), 0),
+				this.rows - 1);
+	}
+}
@@ -0,0 +1,96 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Caches every sprite pre-rasterized into an image, so drawing an entity is
+ * a single image blit instead of one rectangle per lit pixel.
+ *
+ * Images are keyed by sprite type and color, so when an entity changes color
+ * (e.g. the Ghost item turning the ship dark gray) the next draw looks up a
+ * different entry instead of reusing a stale image.
+ */
+final class SpriteAtlas {
+
+	/** Sprite types mapped to their images. */
+	private final Map<SpriteType, boolean[][]> spriteMap;
+	/** Size in screen pixels of one sprite pixel. */
+	private final int pixelSize;
+	/** Rasterized sprites, one map of colors per sprite type. */
+	private final Map<SpriteType, Map<Color, BufferedImage>> images;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param spriteMap
+	 *            Loaded sprite data.
+	 * @param pixelSize
+	 *            Size in screen pixels of one sprite pixel.
+	 */
+	SpriteAtlas(final Map<SpriteType, boolean[][]> spriteMap,
+			final int pixelSize) {
+		this.spriteMap = spriteMap;
+		this.pixelSize = pixelSize;
+		this.images = new ConcurrentHashMap<SpriteType, Map<Color, BufferedImage>>();
+		for (SpriteType spriteType : SpriteType.values())
+			this.images.put(spriteType, new ConcurrentHashMap<Color, BufferedImage>());
+	}
+
+	/**
+	 * Returns the image of a sprite in the given color, rasterizing it the
+	 * first time it is requested.
+	 *
+	 * @param spriteType
+	 *            Sprite to draw.
+	 * @param color
+	 *            Color of the sprite.
+	 * @return Rasterized sprite, transparent where the sprite is empty.
+	 */
+	BufferedImage get(final SpriteType spriteType, final Color color) {
+		Map<Color, BufferedImage> colors = this.images.get(spriteType);
+		BufferedImage image = colors.get(color);
+		if (image == null) {
+			image = rasterize(this.spriteMap.get(spriteType), color,
+					this.pixelSize);
+			colors.put(color, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Draws a sprite into a new image, one square per lit sprite pixel the
+	 * same way it used to be drawn on screen.
+	 *
+	 * @param sprite
+	 *            Sprite data.
+	 * @param color
+	 *            Color of the sprite.
+	 * @param pixelSize
+	 *            Size in screen pixels of one sprite pixel.
+	 * @return Rasterized sprite.
+	 */
+	private static BufferedImage rasterize(final boolean[][] sprite,
+			final Color color, final int pixelSize) {
+		int width = sprite.length * pixelSize;
+		int height = sprite.length == 0 ? 0 : sprite[0].length * pixelSize;
+		BufferedImage image = new BufferedImage(Math.max(width, 1),
+				Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+
+		Graphics graphics = image.getGraphics();
+		graphics.setColor(color);
+		for (int i = 0; i < sprite.length; i++)
+			for (int j = 0; j < sprite[i].length; j++)
+				if (sprite[i][j])
+					graphics.fillRect(i * pixelSize, j * pixelSize,
+							pixelSize, pixelSize);
+		graphics.dispose();
+
+		return image;
+	}
+}
@@ -0,0 +1,235 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.EnumMap;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Software renderer that writes sprites straight into the pixel array of an
+ * integer RGB image, without going through Java2D.
+ *
+ * Every sprite is packed once into one bit mask per screen row, at the scale
+ * the sprites are drawn with. Drawing a sprite walks the set bits
+ * of each row and fills every run of lit pixels with a single array fill, so
+ * the output is pixel-identical to the atlas blit.
+ */
+final class SpriteRaster {
+
+	/** Sprite masks, one long array of row words per screen row. */
+	private final Map<SpriteType, long[][]> masks;
+	/** Width in screen pixels of each sprite. */
+	private final Map<SpriteType, Integer> widths;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param spriteMap
+	 *            Loaded sprite data.
+	 * @param pixelSize
+	 *            Size in screen pixels of one sprite pixel.
+	 */
+	SpriteRaster(final Map<SpriteType, boolean[][]> spriteMap,
+			final int pixelSize) {
+		this.masks = new EnumMap<SpriteType, long[][]>(SpriteType.class);
+		this.widths = new EnumMap<SpriteType, Integer>(SpriteType.class);
+		for (Map.Entry<SpriteType, boolean[][]> entry : spriteMap.entrySet()) {
+			boolean[][] sprite = entry.getValue();
+			this.masks.put(entry.getKey(), pack(sprite, pixelSize));
+			this.widths.put(entry.getKey(), sprite.length * pixelSize);
+		}
+	}
+
+	/**
+	 * Draws a sprite into an integer RGB image.
+	 *
+	 * @param target
+	 *            Image to draw on.
+	 * @param spriteType
+	 *            Sprite to draw.
+	 * @param color
+	 *            Color of the sprite.
+	 * @param positionX
+	 *            Coordinates for the left side of the sprite.
+	 * @param positionY
+	 *            Coordinates for the upper side of the sprite.
+	 * @return False if the sprite can't be drawn here and has to be drawn
+	 *         through Java2D instead.
+	 */
+	boolean draw(final BufferedImage target, final SpriteType spriteType,
+			final Color color, final int positionX, final int positionY) {
+		long[][] rows = this.masks.get(spriteType);
+		if (rows == null)
+			return false;
+		return draw(target, rows, this.widths.get(spriteType), color,
+				positionX, positionY);
+	}
+
+	/**
+	 * Returns the packed mask of a sprite.
+	 *
+	 * @param spriteType
+	 *            Sprite to look up.
+	 * @return Row masks of the sprite, null if it was not loaded.
+	 */
+	long[][] mask(final SpriteType spriteType) {
+		return this.masks.get(spriteType);
+	}
+
+	/**
+	 * Returns the width of the packed mask of a sprite.
+	 *
+	 * @param spriteType
+	 *            Sprite to look up.
+	 * @return Width in screen pixels of the sprite.
+	 */
+	int maskWidth(final SpriteType spriteType) {
+		Integer width = this.widths.get(spriteType);
+		return width == null ? 0 : width;
+	}
+
+	/**
+	 * Draws a packed mask into an integer RGB image.
+	 *
+	 * @param target
+	 *            Image to draw on.
+	 * @param rows
+	 *            Mask to draw, one long array of row words per screen row.
+	 * @param maskWidth
+	 *            Width in screen pixels of the mask.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @param positionX
+	 *            Coordinates for the left side of the mask.
+	 * @param positionY
+	 *            Coordinates for the upper side of the mask.
+	 * @return False if the mask can't be drawn here and has to be drawn
+	 *         through Java2D instead.
+	 */
+	static boolean draw(final BufferedImage target, final long[][] rows,
+			final int maskWidth, final Color color, final int positionX,
+			final int positionY) {
+		return draw(target, rows, maskWidth, color, positionX, positionY, 0,
+				target.getHeight());
+	}
+
+	/**
+	 * Draws the part of a packed mask that falls between two rows of an
+	 * integer RGB image.
+	 *
+	 * @param target
+	 *            Image to draw on.
+	 * @param rows
+	 *            Mask to draw, one long array of row words per screen row.
+	 * @param maskWidth
+	 *            Width in screen pixels of the mask.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @param positionX
+	 *            Coordinates for the left side of the mask.
+	 * @param positionY
+	 *            Coordinates for the upper side of the mask.
+	 * @param clipTop
+	 *            First image row drawn.
+	 * @param clipBottom
+	 *            Image row after the last one drawn.
+	 * @return False if the mask can't be drawn here and has to be drawn
+	 *         through Java2D instead.
+	 */
+	static boolean draw(final BufferedImage target, final long[][] rows,
+			final int maskWidth, final Color color, final int positionX,
+			final int positionY, final int clipTop, final int clipBottom) {
+		if (target.getType() != BufferedImage.TYPE_INT_RGB
+				|| color.getAlpha() != 255)
+			return false;
+
+		int[] pixels = ((DataBufferInt) target.getRaster().getDataBuffer())
+				.getData();
+		int width = target.getWidth();
+		int height = target.getHeight();
+		int rgb = color.getRGB() & 0xFFFFFF;
+
+		int firstRow = Math.max(0, Math.max(clipTop, 0) - positionY);
+		int lastRow = Math.min(rows.length,
+				Math.min(clipBottom, height) - positionY);
+		int clipLeft = Math.max(0, -positionX);
+		int clipRight = Math.min(maskWidth, width - positionX);
+		if (clipLeft >= clipRight)
+			return true;
+
+		for (int row = firstRow; row < lastRow; row++) {
+			long[] words = rows[row];
+			int offset = (positionY + row) * width + positionX;
+			for (int w = 0; w < words.length; w++) {
+				long word = words[w];
+				while (word != 0) {
+					int start = Long.numberOfTrailingZeros(word);
+					long shifted = ~(word >>> start);
+					int length = shifted == 0 ? Long.SIZE - start
+							: Long.numberOfTrailingZeros(shifted);
+					int from = Math.max((w << 6) + start, clipLeft);
+					int to = Math.min((w << 6) + start + length, clipRight);
+					for (int x = offset + from; x < offset + to; x++)
+						pixels[x] = rgb;
+					word = start + length == Long.SIZE ? 0
+							: word & (-1L << (start + length));
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Packs the opaque pixels of an image into bit masks, one row of words
+	 * per image row.
+	 *
+	 * @param image
+	 *            Image to pack.
+	 * @return Row masks of the image.
+	 */
+	static long[][] pack(final BufferedImage image) {
+		int width = image.getWidth();
+		int words = (width + Long.SIZE - 1) / Long.SIZE;
+		long[][] rows = new long[image.getHeight()][words];
+		int[] line = new int[width];
+
+		for (int y = 0; y < rows.length; y++) {
+			image.getRGB(0, y, width, 1, line, 0, width);
+			for (int x = 0; x < width; x++)
+				if ((line[x] >>> 24) != 0)
+					rows[y][x >> 6] |= 1L << (x & 63);
+		}
+		return rows;
+	}
+
+	/**
+	 * Packs a sprite into bit masks at screen scale, one row of words per
+	 * screen row.
+	 *
+	 * @param sprite
+	 *            Sprite data.
+	 * @param pixelSize
+	 *            Size in screen pixels of one sprite pixel.
+	 * @return Row masks of the sprite.
+	 */
+	static long[][] pack(final boolean[][] sprite,
+			final int pixelSize) {
+		int width = sprite.length * pixelSize;
+		int height = sprite.length == 0 ? 0 : sprite[0].length * pixelSize;
+		int words = (width + Long.SIZE - 1) / Long.SIZE;
+		long[][] rows = new long[height][words];
+
+		for (int i = 0; i < sprite.length; i++)
+			for (int j = 0; j < sprite[i].length; j++)
+				if (sprite[i][j])
+					for (int dy = 0; dy < pixelSize; dy++)
+						for (int dx = 0; dx < pixelSize; dx++) {
+							int x = i * pixelSize + dx;
+							rows[j * pixelSize + dy][x >> 6] |= 1L << (x & 63);
+						}
+		return rows;
+	}
+}
@@ -0,0 +1,148 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Three frame buffers handed over from one drawing thread to one
+ * compositing thread without locks.
+ *
+ * The producer draws on its back buffer and publishes it by swapping it
+ * with the shared middle buffer in one atomic operation. The consumer takes
+ * the middle buffer the same way whenever a newer frame was published, so
+ * it always gets the latest complete frame without waiting, and neither
+ * side ever touches the buffer the other one is using. Buffers are reused
+ * between frames and only allocated again, by the producer, when the frame
+ * size changes.
+ */
+final class TripleBuffer {
+
+	/** Bits of the shared state holding the index of the middle buffer. */
+	private static final int INDEX_MASK = 3;
+	/** Bit of the shared state set when the middle buffer is a new frame. */
+	private static final int FRESH = 4;
+
+	/** Buffer images. */
+	private final BufferedImage[] images = new BufferedImage[3];
+	/** Graphics context of each buffer image, in buffer pixels. */
+	private final Graphics[] graphics = new Graphics[3];
+	/** Graphics context of each buffer image, in frame coordinates. */
+	private final Graphics[] scaledGraphics = new Graphics[3];
+	/** Frame pixels per buffer pixel. */
+	private final int scale;
+	/** Index of the middle buffer and the FRESH bit. */
+	private final AtomicInteger middle;
+	/** Index of the buffer drawn by the producer. */
+	private int back;
+	/** Index of the buffer read by the consumer. */
+	private int front;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param scale
+	 *            Frame pixels per buffer pixel, 1 for full resolution.
+	 */
+	TripleBuffer(final int scale) {
+		this.scale = Math.max(scale, 1);
+		this.back = 0;
+		this.middle = new AtomicInteger(1);
+		this.front = 2;
+	}
+
+	/**
+	 * Clears the back buffer for the next frame. Called by the producer.
+	 *
+	 * @param width
+	 *            Width of the frame.
+	 * @param height
+	 *            Height of the frame.
+	 * @return Buffer to draw the next frame on.
+	 */
+	BufferedImage next(final int width, final int height) {
+		BufferedImage image = this.images[this.back];
+		if (image == null
+				|| image.getWidth() != (width + this.scale - 1) / this.scale
+				|| image.getHeight() != (height + this.scale - 1) / this.scale)
+			image = allocate(this.back, width, height);
+
+		this.graphics[this.back].setColor(Color.BLACK);
+		this.graphics[this.back].fillRect(0, 0, image.getWidth(),
+				image.getHeight());
+		return image;
+	}
+
+	/**
+	 * Getter for the graphics of the back buffer, taking frame coordinates.
+	 *
+	 * @return Graphics context of the back buffer.
+	 */
+	Graphics currentGraphics() {
+		return this.scaledGraphics[this.back];
+	}
+
+	/**
+	 * Getter for the graphics of the back buffer, taking buffer pixel
+	 * coordinates.
+	 *
+	 * @return Unscaled graphics context of the back buffer.
+	 */
+	Graphics currentPixelGraphics() {
+		return this.graphics[this.back];
+	}
+
+	/**
+	 * Publishes the back buffer as the latest complete frame, and takes the
+	 * middle buffer to draw the next frame on. Called by the producer.
+	 */
+	void publish() {
+		this.back = this.middle.getAndSet(this.back | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Returns the latest complete frame, taking it from the middle buffer
+	 * if a newer one was published. Called by the consumer.
+	 *
+	 * @return Latest published frame, or null if none was published yet.
+	 */
+	BufferedImage latest() {
+		if ((this.middle.get() & FRESH) != 0)
+			this.front = this.middle.getAndSet(this.front) & INDEX_MASK;
+		return this.images[this.front];
+	}
+
+	/**
+	 * (Re)allocates one buffer for a new frame size.
+	 *
+	 * @param index
+	 *            Buffer to allocate, owned by the calling thread.
+	 * @param width
+	 *            Width of the frame.
+	 * @param height
+	 *            Height of the frame.
+	 * @return Allocated buffer image.
+	 */
+	private BufferedImage allocate(final int index, final int width,
+			final int height) {
+		if (this.graphics[index] != null)
+			this.graphics[index].dispose();
+		if (this.scaledGraphics[index] != this.graphics[index])
+			this.scaledGraphics[index].dispose();
+		this.images[index] = new BufferedImage(
+				(width + this.scale - 1) / this.scale,
+				(height + this.scale - 1) / this.scale,
+				BufferedImage.TYPE_INT_RGB);
+		this.graphics[index] = this.images[index].getGraphics();
+		if (this.scale == 1) {
+			this.scaledGraphics[index] = this.graphics[index];
+		} else {
+			Graphics2D scaled = this.images[index].createGraphics();
+			scaled.scale(1.0 / this.scale, 1.0 / this.scale);
+			this.scaledGraphics[index] = scaled;
+		}
+		return this.images[index];
+	}
+}
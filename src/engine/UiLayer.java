@@ -0,0 +1,87 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+import screen.Screen;
+
+/**
+ * Retained image of a menu screen. The screen is only drawn again when the
+ * model it shows (selection, coins, volume, names...) is no longer equal to
+ * the one it was drawn for, the rest of the frames present the retained
+ * image as is.
+ */
+final class UiLayer {
+
+	/** Retained image. */
+	private BufferedImage image;
+	/** Graphics context of the retained image. */
+	private Graphics graphics;
+	/** Screen the image was drawn for. */
+	private Screen screen;
+	/** Model the image was drawn for. */
+	private Object model;
+
+	/**
+	 * Returns whether the retained image still shows a screen.
+	 *
+	 * @param currentScreen
+	 *            Screen being drawn.
+	 * @param currentModel
+	 *            Values of the model the screen shows.
+	 * @return True if the image was drawn for the same screen and model.
+	 */
+	boolean isCurrent(final Screen currentScreen, final Object currentModel) {
+		return this.image != null && this.screen == currentScreen
+				&& Objects.equals(this.model, currentModel)
+				&& this.image.getWidth() == currentScreen.getWidth()
+				&& this.image.getHeight() == currentScreen.getHeight();
+	}
+
+	/**
+	 * Clears the image to draw a screen on it again.
+	 *
+	 * @param currentScreen
+	 *            Screen to draw.
+	 * @param currentModel
+	 *            Values of the model the screen shows.
+	 * @return Image to draw the screen on.
+	 */
+	BufferedImage begin(final Screen currentScreen, final Object currentModel) {
+		int width = currentScreen.getWidth();
+		int height = currentScreen.getHeight();
+		if (this.image == null || this.image.getWidth() != width
+				|| this.image.getHeight() != height) {
+			if (this.graphics != null)
+				this.graphics.dispose();
+			this.image = new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_RGB);
+			this.graphics = this.image.getGraphics();
+		}
+		this.graphics.setColor(Color.BLACK);
+		this.graphics.fillRect(0, 0, width, height);
+		this.screen = currentScreen;
+		this.model = currentModel;
+		return this.image;
+	}
+
+	/**
+	 * Getter for the retained image.
+	 *
+	 * @return Retained image.
+	 */
+	BufferedImage image() {
+		return this.image;
+	}
+
+	/**
+	 * Getter for the graphics of the retained image.
+	 *
+	 * @return Graphics context of the retained image.
+	 */
+	Graphics graphics() {
+		return this.graphics;
+	}
+}
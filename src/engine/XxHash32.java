@@ -0,0 +1,85 @@
+package engine;
+
+/**
+ * xxHash32 of int arrays, read as little endian bytes after masking each
+ * int. Fast enough to hash every frame of the game without slowing it down
+ * noticeably.
+ */
+final class XxHash32 {
+
+	private static final int PRIME1 = 0x9E3779B1;
+	private static final int PRIME2 = 0x85EBCA77;
+	private static final int PRIME3 = 0xC2B2AE3D;
+	private static final int PRIME4 = 0x27D4EB2F;
+	private static final int PRIME5 = 0x165667B1;
+
+	/**
+	 * Private constructor.
+	 */
+	private XxHash32() {
+	}
+
+	/**
+	 * Hashes a range of an int array.
+	 *
+	 * @param data
+	 *            Array to hash.
+	 * @param offset
+	 *            First int to hash.
+	 * @param length
+	 *            Number of ints to hash.
+	 * @param seed
+	 *            Seed of the hash.
+	 * @param mask
+	 *            Bits of each int that are hashed.
+	 * @return xxHash32 of the masked range.
+	 */
+	static int hash(final int[] data, final int offset, final int length,
+			final int seed, final int mask) {
+		int end = offset + length;
+		int i = offset;
+		int hash;
+
+		if (length >= 4) {
+			int v1 = seed + PRIME1 + PRIME2;
+			int v2 = seed + PRIME2;
+			int v3 = seed;
+			int v4 = seed - PRIME1;
+			for (int limit = end - 4; i <= limit; i += 4) {
+				v1 = round(v1, data[i] & mask);
+				v2 = round(v2, data[i + 1] & mask);
+				v3 = round(v3, data[i + 2] & mask);
+				v4 = round(v4, data[i + 3] & mask);
+			}
+			hash = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7)
+					+ Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+		} else {
+			hash = seed + PRIME5;
+		}
+
+		hash += length * 4;
+		for (; i < end; i++)
+			hash = Integer.rotateLeft(hash + (data[i] & mask) * PRIME3, 17)
+					* PRIME4;
+
+		hash ^= hash >>> 15;
+		hash *= PRIME2;
+		hash ^= hash >>> 13;
+		hash *= PRIME3;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+	/**
+	 * Mixes one lane into an accumulator.
+	 *
+	 * @param accumulator
+	 *            Accumulator of the lane.
+	 * @param lane
+	 *            Next 4 bytes of the lane.
+	 * @return New accumulator.
+	 */
+	private static int round(final int accumulator, final int lane) {
+		return Integer.rotateLeft(accumulator + lane * PRIME2, 13) * PRIME1;
+	}
+}
@@ -15,6 +15,19 @@ public class Barrier extends Entity{
     public Barrier(final int positionX, final int positionY) {
         super(positionX, positionY, 39 * 2, 11 * 2, Color.GREEN);
         this.spriteType = SpriteType.Barrier;
+        reset(positionX, positionY);
+    }
+
+    /**
+     * Resets the barrier to a full health one at a position, when it is
+     * reused from an entity pool.
+     *
+     * @param positionX Position of the barrier in the X axis.
+     * @param positionY Position of the barrier in the Y axis.
+     */
+    public final void reset(final int positionX, final int positionY) {
+        this.positionX = positionX;
+        this.positionY = positionY;
         this.health = 1;
     }
 
@@ -15,4 +15,15 @@ public class Block extends Entity {
         super(positionX, positionY, 20 * 2, 7 * 2, Color.WHITE);
         this.spriteType = SpriteType.Block;
     }
+
+    /**
+     * Moves the block to a position, when it is reused from an entity pool.
+     *
+     * @param positionX Position of the block in the X axis.
+     * @param positionY Position of the block in the Y axis.
+     */
+    public final void reset(final int positionX, final int positionY) {
+        this.positionX = positionX;
+        this.positionY = positionY;
+    }
 }
\ No newline at end of file
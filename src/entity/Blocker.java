@@ -1,5 +1,6 @@
 package entity;
 
+import engine.Core;
 import engine.DrawManager.SpriteType;
 import java.util.Random;
 import java.awt.*;
@@ -15,8 +16,33 @@ public class Blocker extends Entity {
     public Blocker(int positionX, int positionY, final SpriteType spriteType, boolean moveLeft) {
         //super(positionX, positionY, 182 * 2, 93 * 2, Color.GREEN);
         super(positionX, positionY, 82 * 2, 81 * 2, Color.GREEN);
+        this.random = Core.getRandom();
+        reset(positionX, positionY, spriteType, moveLeft);
+    }
+
+    /**
+     * Constructor for an entity pool, without drawing a random angle. The
+     * blocker is started with reset before use.
+     */
+    public Blocker() {
+        super(0, 0, 82 * 2, 81 * 2, Color.GREEN);
+        this.spriteType = SpriteType.Blocker1;
+        this.random = Core.getRandom();
+    }
+
+    /**
+     * Starts the blocker again at a position with a random angle, when it
+     * is reused from an entity pool.
+     *
+     * @param positionX Position of the blocker in the X axis.
+     * @param positionY Position of the blocker in the Y axis.
+     * @param spriteType Sprite of the blocker.
+     * @param moveLeft True to move from right to left.
+     */
+    public final void reset(int positionX, int positionY, final SpriteType spriteType, boolean moveLeft) {
+        this.positionX = positionX;
+        this.positionY = positionY;
         this.spriteType = spriteType;
-        this.random = new Random();
         angle = 180 * random.nextDouble();
         this.moveLeft = moveLeft;
     }
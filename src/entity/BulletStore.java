@@ -0,0 +1,301 @@
+package entity;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Every bullet on a screen, kept as parallel arrays of primitives instead of
+ * one object per bullet.
+ *
+ * Bullets are read by index from 0 to size - 1. A bullet is removed by
+ * moving the last one into its place, so removing changes the order of the
+ * bullets after it but never shifts the arrays. Bullets found during a pass
+ * are marked, and removed together by sweep once the pass is over, so the
+ * indexes stay valid during the pass.
+ *
+ * The arrays are allocated up front for the bullets a screen usually
+ * holds, double in size when they are full, and are never shrunk. Once the
+ * store holds its limit of bullets, further bullets are dropped. Each game
+ * screen has its own store, counting how often a bullet found room
+ * already allocated, needed the arrays to grow, or was dropped.
+ */
+public final class BulletStore {
+
+	/** Width of a bullet. */
+	public static final int WIDTH = 3 * 2;
+	/** Height of a bullet. */
+	public static final int HEIGHT = 5 * 2;
+	/** Color of every bullet. */
+	public static final Color COLOR = Color.WHITE;
+	/** Owner of the bullets shot by the player ship. */
+	public static final byte PLAYER = 0;
+	/** Owner of the bullets shot by the enemy ships. */
+	public static final byte ENEMY = 1;
+
+	/** Position in the x-axis of the upper left corner of each bullet. */
+	private int[] positionX;
+	/** Position in the y-axis of the upper left corner of each bullet. */
+	private int[] positionY;
+	/** Speed of each bullet, positive is down. */
+	private int[] speed;
+	/** Ship that shot each bullet, PLAYER or ENEMY. */
+	private byte[] owner;
+	/** Sprite of each bullet. */
+	private SpriteType[] spriteType;
+	/** If each bullet is removed by the next sweep. */
+	private boolean[] marked;
+	/** Number of bullets. */
+	private int size;
+	/** Number of bullets marked. */
+	private int markedCount;
+	/** Most bullets held at once. */
+	private final int limit;
+	/** Bullets added in room already allocated. */
+	private int hits;
+	/** Bullets added after growing the arrays. */
+	private int misses;
+	/** Bullets dropped at the limit. */
+	private int dropped;
+	/** Most bullets held at once so far. */
+	private int highWater;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *            Number of bullets stored before the arrays grow.
+	 * @param limit
+	 *            Most bullets held at once.
+	 */
+	public BulletStore(final int capacity, final int limit) {
+		this.limit = Math.max(limit, 1);
+		int initial = Math.min(Math.max(capacity, 1), this.limit);
+		this.positionX = new int[initial];
+		this.positionY = new int[initial];
+		this.speed = new int[initial];
+		this.owner = new byte[initial];
+		this.spriteType = new SpriteType[initial];
+		this.marked = new boolean[initial];
+	}
+
+	/**
+	 * Adds a bullet.
+	 *
+	 * @param centerX
+	 *            Position of the center of the bullet in the x-axis.
+	 * @param positionY
+	 *            Position of the upper side of the bullet in the y-axis.
+	 * @param speed
+	 *            Speed of the bullet, positive or negative depending on
+	 *            direction - positive is down.
+	 * @return Index of the bullet, -1 if it was dropped at the limit.
+	 */
+	public int add(final int centerX, final int positionY, final int speed) {
+		if (this.size == this.limit) {
+			this.dropped++;
+			return -1;
+		}
+		if (this.size == this.positionX.length) {
+			grow();
+			this.misses++;
+		} else {
+			this.hits++;
+		}
+		int index = this.size++;
+		this.highWater = Math.max(this.highWater, this.size);
+		this.positionX[index] = centerX - WIDTH / 2;
+		this.positionY[index] = positionY;
+		this.speed[index] = speed;
+		this.owner[index] = speed < 0 ? PLAYER : ENEMY;
+		this.spriteType[index] = speed < 0 ? SpriteType.Bullet
+				: SpriteType.EnemyBullet;
+		this.marked[index] = false;
+		return index;
+	}
+
+	/**
+	 * Moves every bullet by its speed.
+	 */
+	public void update() {
+		for (int i = 0; i < this.size; i++)
+			this.positionY[i] += this.speed[i];
+	}
+
+	/**
+	 * Marks a bullet to be removed by the next sweep.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 */
+	public void mark(final int index) {
+		if (!this.marked[index]) {
+			this.marked[index] = true;
+			this.markedCount++;
+		}
+	}
+
+	/**
+	 * Removes every marked bullet, moving the last bullets into their
+	 * places.
+	 */
+	public void sweep() {
+		// Going down, the last bullet is never a marked one.
+		for (int i = this.size - 1; i >= 0 && this.markedCount > 0; i--)
+			if (this.marked[i]) {
+				remove(i);
+				this.markedCount--;
+			}
+	}
+
+	/**
+	 * Removes a bullet, moving the last bullet into its place.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 */
+	public void remove(final int index) {
+		int last = --this.size;
+		this.positionX[index] = this.positionX[last];
+		this.positionY[index] = this.positionY[last];
+		this.speed[index] = this.speed[last];
+		this.owner[index] = this.owner[last];
+		this.spriteType[index] = this.spriteType[last];
+		this.marked[index] = this.marked[last];
+		this.spriteType[last] = null;
+		this.marked[last] = false;
+	}
+
+	/**
+	 * Removes every bullet.
+	 */
+	public void clear() {
+		Arrays.fill(this.spriteType, 0, this.size, null);
+		Arrays.fill(this.marked, 0, this.size, false);
+		this.size = 0;
+		this.markedCount = 0;
+	}
+
+	/**
+	 * Getter for the number of bullets.
+	 *
+	 * @return Number of bullets.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Getter for the number of bullets stored before the arrays grow.
+	 *
+	 * @return Capacity of the arrays.
+	 */
+	public int getCapacity() {
+		return this.positionX.length;
+	}
+
+	/**
+	 * Getter for the number of bullets added in room already allocated.
+	 *
+	 * @return Bullets added without growing the arrays.
+	 */
+	public int getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Getter for the number of bullets that needed the arrays to grow.
+	 *
+	 * @return Bullets added after growing the arrays.
+	 */
+	public int getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Getter for the number of bullets dropped at the limit.
+	 *
+	 * @return Bullets not added.
+	 */
+	public int getDropped() {
+		return this.dropped;
+	}
+
+	/**
+	 * Getter for the most bullets held at once so far.
+	 *
+	 * @return High water mark of the number of bullets.
+	 */
+	public int getHighWater() {
+		return this.highWater;
+	}
+
+	/**
+	 * Getter for the position of a bullet in the x-axis.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Position of the left side of the bullet.
+	 */
+	public int getPositionX(final int index) {
+		return this.positionX[index];
+	}
+
+	/**
+	 * Getter for the position of a bullet in the y-axis.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Position of the upper side of the bullet.
+	 */
+	public int getPositionY(final int index) {
+		return this.positionY[index];
+	}
+
+	/**
+	 * Getter for the speed of a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Speed of the bullet, positive is down.
+	 */
+	public int getSpeed(final int index) {
+		return this.speed[index];
+	}
+
+	/**
+	 * Getter for the ship that shot a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return PLAYER or ENEMY.
+	 */
+	public byte getOwner(final int index) {
+		return this.owner[index];
+	}
+
+	/**
+	 * Getter for the sprite of a bullet.
+	 *
+	 * @param index
+	 *            Index of the bullet.
+	 * @return Sprite of the bullet.
+	 */
+	public SpriteType getSpriteType(final int index) {
+		return this.spriteType[index];
+	}
+
+	/**
+	 * Doubles the capacity of the arrays, up to the limit.
+	 */
+	private void grow() {
+		int capacity = Math.min(this.positionX.length * 2, this.limit);
+		this.positionX = Arrays.copyOf(this.positionX, capacity);
+		this.positionY = Arrays.copyOf(this.positionY, capacity);
+		this.speed = Arrays.copyOf(this.speed, capacity);
+		this.owner = Arrays.copyOf(this.owner, capacity);
+		this.spriteType = Arrays.copyOf(this.spriteType, capacity);
+		this.marked = Arrays.copyOf(this.marked, capacity);
+	}
+}
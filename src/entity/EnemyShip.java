@@ -126,7 +126,16 @@ public class EnemyShip extends Entity {
 	 */
 	public EnemyShip() {
 		super(-32, 60, 16 * 2, 7 * 2, Color.RED);
+		reset();
+	}
 
+	/**
+	 * Brings a special ship back to its starting properties, when it is
+	 * reused from an entity pool.
+	 */
+	public final void reset() {
+		this.positionX = -32;
+		this.positionY = 60;
 		this.spriteType = SpriteType.EnemyShipSpecial;
 		this.isDestroyed = false;
 		this.pointValue = BONUS_TYPE_POINTS;
@@ -89,6 +89,18 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private int shipWidth;
 	/** Height of one ship. */
 	private int shipHeight;
+	/**
+	 * Position in the x-axis of the ship in the first column. Every ship
+	 * moves with the formation, so the ship of column c always sits at
+	 * latticeX + c * SEPARATION_DISTANCE, even once that one is gone.
+	 */
+	private int latticeX;
+	/** Position in the y-axis of the ship in the first row. */
+	private int latticeY;
+	/** Ships found by the last query, in iteration order. */
+	private EnemyShip[] found;
+	/** Number of ships found by the last query. */
+	private int foundCount;
 	/** List of ships that are able to shoot. */
 	private List<EnemyShip> shooters;
 	/** Number of not destroyed ships. */
@@ -131,6 +143,9 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		this.movementSpeed = this.baseSpeed;
 		this.positionX = INIT_POS_X;
 		this.positionY = INIT_POS_Y;
+		this.latticeX = INIT_POS_X;
+		this.latticeY = INIT_POS_Y;
+		this.found = new EnemyShip[this.nShipsWide * this.nShipsHigh];
 		this.shooters = new ArrayList<EnemyShip>();
 		this.gameState = gameState;
 		SpriteType spriteType;
@@ -276,6 +291,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 			positionX += movementX;
 			positionY += movementY;
+			latticeX += movementX;
+			latticeY += movementY;
 
 			// Cleans explosions.
 			for (int i = 0; i < this.enemyShips.size(); i++)
@@ -366,9 +383,9 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Shoots a bullet downwards.
 	 * 
 	 * @param bullets
-	 *            Bullets set to add the bullet being shot.
+	 *            Bullets on screen, to add the bullet being shot.
 	 */
-	public final void shoot(final Set<Bullet> bullets, int level, float balance) {
+	public final void shoot(final BulletStore bullets, int level, float balance) {
 		// Increasing the number of projectiles per level 3 (levels 1 to 3, 4 to 6, 2, 7 to 9, etc.)
 		int numberOfShooters = Math.min((level / 3) + 1, this.shooters.size());
 		int numberOfBullets = (level / 3) + 1;
@@ -376,7 +393,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		// Randomly select enemy to fire in proportion to the level
 		List<EnemyShip> selectedShooters = new ArrayList<>();
 		for (int i = 0; i < numberOfShooters; i++) {
-			int index = (int) (Math.random() * this.shooters.size());
+			int index = Core.getRandom().nextInt(this.shooters.size());
 			selectedShooters.add(this.shooters.get(index));
 		}
 
@@ -387,15 +404,17 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 			// Each selected enemy fires a bullet
 			for (EnemyShip shooter : selectedShooters) {
 				// One shot at the base
-				bullets.add(BulletPool.getBullet(shooter.getPositionX()
-						+ shooter.width / 2 + 10, shooter.getPositionY(), BULLET_SPEED));
+				boolean shot = bullets.add(shooter.getPositionX()
+						+ shooter.width / 2 + 10, shooter.getPositionY(), BULLET_SPEED) >= 0;
 
 				// Additional launches based on levels (more launches based on each level)
 				for (int i = 1; i < numberOfBullets; i++) {
-					bullets.add(BulletPool.getBullet(shooter.getPositionX()
-							+ shooter.width / 2 + (10 * (i + 1)), shooter.getPositionY(), BULLET_SPEED));
+					shot |= bullets.add(shooter.getPositionX()
+							+ shooter.width / 2 + (10 * (i + 1)), shooter.getPositionY(), BULLET_SPEED) >= 0;
 				}
-				soundManager.playSound(Sound.ALIEN_LASER, balance);
+				// No sound when the store is full and every bullet was dropped
+				if (shot)
+					soundManager.playSound(Sound.ALIEN_LASER, balance);
 			}
 		}
 	}
@@ -486,6 +505,75 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		}
 	}
 
+	/**
+	 * Finds the ships that can collide with a box. Their columns and rows
+	 * are worked out from the position of the box on the formation
+	 * lattice, so only the ships around it are looked at.
+	 *
+	 * @param positionX
+	 *            Position of the box in the x-axis.
+	 * @param positionY
+	 *            Position of the box in the y-axis.
+	 * @param width
+	 *            Width of the box.
+	 * @param height
+	 *            Height of the box.
+	 * @return Number of ships found, read with result.
+	 */
+	public final int query(final int positionX, final int positionY,
+			final int width, final int height) {
+		return queryCells(
+				-Math.floorDiv(this.latticeX + this.shipWidth - positionX,
+						SEPARATION_DISTANCE),
+				-Math.floorDiv(this.latticeY + this.shipHeight - positionY,
+						SEPARATION_DISTANCE),
+				Math.floorDiv(positionX + width - this.latticeX,
+						SEPARATION_DISTANCE),
+				Math.floorDiv(positionY + height - this.latticeY,
+						SEPARATION_DISTANCE));
+	}
+
+	/**
+	 * Finds the ships not destroyed in a block of columns and rows of the
+	 * formation, column by column as the iterator goes.
+	 *
+	 * @param firstColumn
+	 *            First column of the block.
+	 * @param firstRow
+	 *            First row of the block.
+	 * @param lastColumn
+	 *            Last column of the block, included.
+	 * @param lastRow
+	 *            Last row of the block, included.
+	 * @return Number of ships found, read with result.
+	 */
+	public final int queryCells(final int firstColumn, final int firstRow,
+			final int lastColumn, final int lastRow) {
+		this.foundCount = 0;
+		int endColumn = Math.min(lastColumn, this.enemyShips.size() - 1);
+		for (int i = Math.max(firstColumn, 0); i <= endColumn; i++) {
+			List<EnemyShip> column = this.enemyShips.get(i);
+			int endRow = Math.min(lastRow, column.size() - 1);
+			for (int j = Math.max(firstRow, 0); j <= endRow; j++) {
+				EnemyShip enemyShip = column.get(j);
+				if (enemyShip != null && !enemyShip.isDestroyed())
+					this.found[this.foundCount++] = enemyShip;
+			}
+		}
+		return this.foundCount;
+	}
+
+	/**
+	 * Returns a ship found by the last query.
+	 *
+	 * @param index
+	 *            Index of the result, below the number returned by query.
+	 * @return Ship found.
+	 */
+	public final EnemyShip result(final int index) {
+		return this.found[index];
+	}
+
 	/**
 	 * Gets the ship on a given column that will be in charge of shooting.
 	 * 
@@ -512,7 +600,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	@Override
 	public final Iterator<EnemyShip> iterator() {
-		Set<EnemyShip> enemyShipsList = new HashSet<EnemyShip>();
+		Set<EnemyShip> enemyShipsList = new LinkedHashSet<EnemyShip>();
 
 		for (List<EnemyShip> column : this.enemyShips)
 			for (EnemyShip enemyShip : column)
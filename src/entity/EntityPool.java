@@ -0,0 +1,106 @@
+package entity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Pool of entities of one type, so entities that come and go during a level
+ * are reused instead of allocated each time.
+ *
+ * The pool is a stack of recycled entities over an array. An entity taken
+ * from it keeps the state it was recycled with, so it is given its new
+ * state with its reset method before use, as its constructor would.
+ * Entities are only created by the factory when the stack is empty. The
+ * pools of a game are kept together in EntityPools, one set per player, so
+ * screens running on separate threads never share one.
+ *
+ * @param <T>
+ *            Type of the entities pooled.
+ */
+public final class EntityPool<T extends Entity> {
+
+	/** Initial capacity of the stack. */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/** Creates an entity when none is recycled. */
+	private final Supplier<T> factory;
+	/** Recycled entities, the last one on top. */
+	private Entity[] stack;
+	/** Number of recycled entities. */
+	private int size;
+	/** Entities created by the factory. */
+	private int created;
+	/** Entities taken from the stack. */
+	private int reused;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param factory
+	 *            Creates an entity when none is recycled.
+	 */
+	public EntityPool(final Supplier<T> factory) {
+		this.factory = factory;
+		this.stack = new Entity[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Returns a recycled entity if there is one, a new one if there isn't.
+	 * Its state is the one it was recycled or created with, until reset.
+	 *
+	 * @return Entity to reset before use.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get() {
+		if (this.size == 0) {
+			this.created++;
+			return this.factory.get();
+		}
+		this.reused++;
+		T entity = (T) this.stack[--this.size];
+		this.stack[this.size] = null;
+		return entity;
+	}
+
+	/**
+	 * Returns an entity to the pool. It must not be used afterwards.
+	 *
+	 * @param entity
+	 *            Entity no longer in use.
+	 */
+	public void recycle(final T entity) {
+		if (this.size == this.stack.length)
+			this.stack = Arrays.copyOf(this.stack, this.size * 2);
+		this.stack[this.size++] = entity;
+	}
+
+	/**
+	 * Returns every entity of a collection to the pool.
+	 *
+	 * @param entities
+	 *            Entities no longer in use.
+	 */
+	public void recycleAll(final Collection<? extends T> entities) {
+		for (T entity : entities)
+			recycle(entity);
+	}
+
+	/**
+	 * Getter for the number of entities created by the pool.
+	 *
+	 * @return Entities created since the pool was.
+	 */
+	public int getCreated() {
+		return this.created;
+	}
+
+	/**
+	 * Getter for the number of entities reused from the pool.
+	 *
+	 * @return Recycled entities handed out again.
+	 */
+	public int getReused() {
+		return this.reused;
+	}
+}
@@ -0,0 +1,135 @@
+package entity;
+
+import java.util.logging.Logger;
+
+/**
+ * Pools of every entity that comes and goes during a level, kept for a
+ * whole game so each level reuses the entities the levels before it
+ * recycled.
+ *
+ * A game owns one set of pools and hands it to each of its game screens
+ * in turn. In two player mode each player plays in a session of their own,
+ * with pools of their own, so the pools are only ever used by one screen
+ * at a time.
+ */
+public final class EntityPools {
+
+	/** Barriers, shared with the item manager. */
+	private final EntityPool<Barrier> barrierPool =
+			new EntityPool<>(() -> new Barrier(0, 0));
+	/** Item boxes. */
+	private final EntityPool<ItemBox> itemBoxPool =
+			new EntityPool<>(ItemBox::new);
+	/** Blocks. */
+	private final EntityPool<Block> blockPool =
+			new EntityPool<>(() -> new Block(0, 0));
+	/** Spider webs. */
+	private final EntityPool<Web> webPool =
+			new EntityPool<>(() -> new Web(0, 0));
+	/** Blockers. */
+	private final EntityPool<Blocker> blockerPool =
+			new EntityPool<>(Blocker::new);
+	/** Special ships. */
+	private final EntityPool<EnemyShip> specialShipPool =
+			new EntityPool<>(EnemyShip::new);
+
+	/**
+	 * Getter for the pool of barriers.
+	 *
+	 * @return Barriers removed from the screen.
+	 */
+	public EntityPool<Barrier> getBarrierPool() {
+		return this.barrierPool;
+	}
+
+	/**
+	 * Getter for the pool of item boxes.
+	 *
+	 * @return Item boxes picked up.
+	 */
+	public EntityPool<ItemBox> getItemBoxPool() {
+		return this.itemBoxPool;
+	}
+
+	/**
+	 * Getter for the pool of blocks.
+	 *
+	 * @return Blocks crashed into by enemy ships.
+	 */
+	public EntityPool<Block> getBlockPool() {
+		return this.blockPool;
+	}
+
+	/**
+	 * Getter for the pool of spider webs.
+	 *
+	 * @return Spider webs of the levels played.
+	 */
+	public EntityPool<Web> getWebPool() {
+		return this.webPool;
+	}
+
+	/**
+	 * Getter for the pool of blockers.
+	 *
+	 * @return Blockers gone off screen.
+	 */
+	public EntityPool<Blocker> getBlockerPool() {
+		return this.blockerPool;
+	}
+
+	/**
+	 * Getter for the pool of special ships.
+	 *
+	 * @return Special ships destroyed or escaped.
+	 */
+	public EntityPool<EnemyShip> getSpecialShipPool() {
+		return this.specialShipPool;
+	}
+
+	/**
+	 * Logs how many entities the pools created and reused so far.
+	 *
+	 * @param logger
+	 *            Logger to log to.
+	 */
+	public void log(final Logger logger) {
+		logger.info("Entity pools created " + created() + " entities and reused "
+				+ reused() + ": " + this.barrierPool.getCreated() + "/"
+				+ this.barrierPool.getReused() + " barriers, "
+				+ this.itemBoxPool.getCreated() + "/"
+				+ this.itemBoxPool.getReused() + " item boxes, "
+				+ this.blockPool.getCreated() + "/"
+				+ this.blockPool.getReused() + " blocks, "
+				+ this.webPool.getCreated() + "/"
+				+ this.webPool.getReused() + " webs, "
+				+ this.blockerPool.getCreated() + "/"
+				+ this.blockerPool.getReused() + " blockers, "
+				+ this.specialShipPool.getCreated() + "/"
+				+ this.specialShipPool.getReused() + " special ships.");
+	}
+
+	/**
+	 * Counts the entities created by every pool.
+	 *
+	 * @return Entities created since the pools were.
+	 */
+	private int created() {
+		return this.barrierPool.getCreated() + this.itemBoxPool.getCreated()
+				+ this.blockPool.getCreated() + this.webPool.getCreated()
+				+ this.blockerPool.getCreated()
+				+ this.specialShipPool.getCreated();
+	}
+
+	/**
+	 * Counts the entities reused from every pool.
+	 *
+	 * @return Recycled entities handed out again.
+	 */
+	private int reused() {
+		return this.barrierPool.getReused() + this.itemBoxPool.getReused()
+				+ this.blockPool.getReused() + this.webPool.getReused()
+				+ this.blockerPool.getReused()
+				+ this.specialShipPool.getReused();
+	}
+}
@@ -1,5 +1,7 @@
 package entity;
 
+import engine.Cooldown;
+import engine.Core;
 import engine.DrawManager.SpriteType;
 import engine.Sound;
 import engine.SoundManager;
@@ -18,8 +20,11 @@ import java.awt.*;
  *
  */
 public class ItemBox extends Entity {
-    /** Check if it was dropped right now. */
-    private boolean droppedRightNow;
+    /** Milliseconds an item box can't be hit after being dropped. */
+    private static final int DROP_PROTECTION = 100;
+
+    /** Time until it can be hit after being dropped. */
+    private final Cooldown droppedCooldown;
 
     /** Initialize singleton instance of SoundManager and return that */
     private static final SoundManager soundManager = SoundManager.getInstance();
@@ -34,18 +39,35 @@ public class ItemBox extends Entity {
     public ItemBox(int positionX, int positionY, final float balance) {
         super(positionX, positionY, 7 * 2, 7 * 2, Color.YELLOW);
         this.spriteType = SpriteType.ItemBox;
-        this.droppedRightNow = true;
+        this.droppedCooldown = Core.getCooldown(DROP_PROTECTION);
+        reset(positionX, positionY, balance);
+    }
+
+    /**
+     * Constructor for an entity pool, without the sound of a drop. The item
+     * box is dropped with reset before use.
+     */
+    public ItemBox() {
+        super(0, 0, 7 * 2, 7 * 2, Color.YELLOW);
+        this.spriteType = SpriteType.ItemBox;
+        this.droppedCooldown = Core.getCooldown(DROP_PROTECTION);
+    }
+
+    /**
+     * Drops the item box at a position, as when it is created, when it is
+     * reused from an entity pool.
+     *
+     * @param positionX Position of the item box in the X axis.
+     * @param positionY Position of the item box in the Y axis.
+     * @param balance 1p -1.0, 2p 1.0, both 0.0
+     */
+    public final void reset(final int positionX, final int positionY, final float balance) {
+        this.positionX = positionX;
+        this.positionY = positionY;
         soundManager.playSound(Sound.ITEM_SPAWN, balance);
 
         // Prevents being hit by bullets immediately after being created.
-        new Thread(() -> {
-            try {
-                Thread.sleep(100);
-                this.droppedRightNow = false;
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        this.droppedCooldown.reset();
     }
 
     /**
@@ -54,6 +76,6 @@ public class ItemBox extends Entity {
      * @return True when it was dropped right now.
      */
     public boolean isDroppedRightNow() {
-        return this.droppedRightNow;
+        return !this.droppedCooldown.checkFinished();
     }
 }
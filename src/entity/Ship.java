@@ -1,7 +1,6 @@
 package entity;
 
 import java.awt.Color;
-import java.util.Set;
 
 import engine.Cooldown;
 import engine.Core;
@@ -78,7 +77,7 @@ public abstract class Ship extends Entity {
 		this.spriteType = spriteType;
 		this.shootingCooldown = Core.getCooldown(this.getShootingInterval());
 		this.destructionCooldown = Core.getCooldown(1000);
-		this.lastShootTime = 0;
+		this.lastShootTime = Core.getGameClock().now() - this.getShootingInterval();
 		this.soundCooldown = Core.getCooldown(SOUND_COOLDOWN_INTERVAL);
 	}
 
@@ -136,52 +135,70 @@ public abstract class Ship extends Entity {
 	 * Shoots a bullet upwards.
 	 * 
 	 * @param bullets
-	 *            List of bullets on screen, to add the new bullet.
-	 * @return Checks if the bullet was shot correctly.
+	 *            Bullets on screen, to add the new bullet.
+	 * @return Number of bullets shot, 0 if none was.
 	 */
-	public final boolean shoot(final Set<Bullet> bullets, int shotNum) {
+	public final int shoot(final BulletStore bullets, int shotNum) {
 		return shoot(bullets, shotNum, 0.0f);
 	}
 
 	/**
 	 * bullet sound (2-players)
 	 * @param bullets
-	 *          List of bullets on screen, to add the new bullet.
+	 *          Bullets on screen, to add the new bullet.
 	 * @param balance
 	 * 			1p -1.0, 2p 1.0, both 0.0
 	 * @param shotNum
 	 * 			Upgraded shot.
 	 *
-	 * @return Checks if the bullet was shot correctly.
+	 * @return Number of bullets shot, 0 while cooling down or when the
+	 *         store is full.
 	 */
-	public final boolean shoot(final Set<Bullet> bullets, int shotNum, float balance) {
+	public final int shoot(final BulletStore bullets, int shotNum, float balance) {
 		if (this.shootingCooldown.checkFinished()) {
 
 			this.shootingCooldown.reset();
-			this.lastShootTime = System.currentTimeMillis();
+			this.lastShootTime = Core.getGameClock().now();
 
+			int shot = 0;
+			Sound sound = null;
 			switch (shotNum) {
 				case 1:
-					bullets.add(BulletPool.getBullet(positionX + this.width / 2, positionY, this.getBulletSpeed()));
-					soundManager.playSound(Sound.PLAYER_LASER, balance);
+					shot += addBullet(bullets, positionX + this.width / 2);
+					sound = Sound.PLAYER_LASER;
 					break;
 				case 2:
-					bullets.add(BulletPool.getBullet(positionX + this.width, positionY, this.getBulletSpeed()));
-					bullets.add(BulletPool.getBullet(positionX, positionY, this.getBulletSpeed()));
-					soundManager.playSound(Sound.ITEM_2SHOT, balance);
+					shot += addBullet(bullets, positionX + this.width);
+					shot += addBullet(bullets, positionX);
+					sound = Sound.ITEM_2SHOT;
 					break;
 				case 3:
-					bullets.add(BulletPool.getBullet(positionX + this.width, positionY, this.getBulletSpeed()));
-					bullets.add(BulletPool.getBullet(positionX, positionY, this.getBulletSpeed()));
-					bullets.add(BulletPool.getBullet(positionX + this.width / 2, positionY, this.getBulletSpeed()));
-					soundManager.playSound(Sound.ITEM_3SHOT, balance);
+					shot += addBullet(bullets, positionX + this.width);
+					shot += addBullet(bullets, positionX);
+					shot += addBullet(bullets, positionX + this.width / 2);
+					sound = Sound.ITEM_3SHOT;
 					break;
 			}
+			if (shot > 0)
+				soundManager.playSound(sound, balance);
 
-			return true;
+			return shot;
 		}
 
-		return false;
+		return 0;
+	}
+
+	/**
+	 * Adds a bullet shot by the ship, unless the store is full.
+	 *
+	 * @param bullets
+	 *            Bullets on screen, to add the new bullet.
+	 * @param centerX
+	 *            Position of the center of the bullet in the x-axis.
+	 * @return 1 if the bullet was added, 0 if it was dropped.
+	 */
+	private int addBullet(final BulletStore bullets, final int centerX) {
+		return bullets.add(centerX, positionY, this.getBulletSpeed()) < 0 ? 0 : 1;
 	}
 
 	/**
@@ -237,7 +254,7 @@ public abstract class Ship extends Entity {
 	}
 
 	public long getRemainingReloadTime(){
-		long currentTime = System.currentTimeMillis();
+		long currentTime = Core.getGameClock().now();
 		long elapsedTime = currentTime - this.lastShootTime;
 		long remainingTime = this.getShootingInterval() - elapsedTime;
 		return remainingTime > 0 ? remainingTime : 0;
@@ -16,5 +16,16 @@ public class  Web extends Entity{
         this.spriteType = SpriteType.Web;
     }
 
+    /**
+     * Moves the web to a position, when it is reused from an entity pool.
+     *
+     * @param positionX Position of the web in the X axis.
+     * @param positionY Position of the web in the Y axis.
+     */
+    public final void reset(final int positionX, final int positionY) {
+        this.positionX = positionX;
+        this.positionY = positionY;
+    }
+
 
 }
\ No newline at end of file
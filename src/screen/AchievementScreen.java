@@ -95,7 +95,6 @@ public class AchievementScreen extends Screen {
 	protected final void update() {
 		super.update();
 
-		draw();
 		if (inputManager.isKeyDown(KeyEvent.VK_ESCAPE)
 				&& this.inputDelay.checkFinished()) {
 			this.isRunning = false;
@@ -106,8 +105,10 @@ public class AchievementScreen extends Screen {
 	/**
 	 * Draws the elements associated with the screen.
 	 */
-	private void draw() {
-		drawManager.initDrawing(this);
+	protected final void draw() {
+		// Everything shown is loaded once when the screen opens.
+		if (!drawManager.beginLayer(this, Boolean.TRUE))
+			return;
 		drawManager.drawAchievementMenu(this, this.totalScore, this.totalPlayTime,
 				this.maxCombo, this.currentPerfectStage, this.currentPerfectStage+1,
 				this.checkFlawlessFailure);
@@ -52,7 +52,6 @@ public class CreditScreen extends Screen{
             this.returnCode = 1;
         }
 
-        draw();
         if (inputManager.isKeyDown(KeyEvent.VK_ESCAPE)
                 && this.inputDelay.checkFinished()) {
             this.isRunning = false;
@@ -60,7 +59,7 @@ public class CreditScreen extends Screen{
         }
     }
 
-    private void draw(){
+    protected final void draw(){
         drawManager.initDrawing(this);
         drawManager.drawEndingCredit(this,this.creditlist, currentFrame);
         drawManager.completeDrawing(this);
@@ -3,7 +3,7 @@ package screen;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Iterator;
@@ -11,8 +11,6 @@ import java.util.List;
 import java.util.Random;
 import java.util.ArrayList;
 import java.util.concurrent.Callable;
-import java.util.Timer;
-import java.util.TimerTask;
 
 
 import engine.*;
@@ -29,6 +27,8 @@ public class GameScreen extends Screen implements Callable<GameState> {
 
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 6000;
+	/** Milliseconds without a hit until the combo is lost. */
+	private static final int COMBO_TIMEOUT = 3000;
 	/** Bonus score for each life remaining at the end of the level. */
 	private static final int LIFE_SCORE = 100;
 	/** Minimum time between bonus ship's appearances. */
@@ -41,6 +41,8 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	private static final int SCREEN_CHANGE_INTERVAL = 1500;
 	/** Height of the interface separation line. */
 	private static final int SEPARATION_LINE_HEIGHT = 40;
+	/** Cell size of the collision grids, around the size of an enemy ship. */
+	private static final int COLLISION_CELL_SIZE = 32;
 
 	/** Current game difficulty settings. */
 	private GameSettings gameSettings;
@@ -59,8 +61,8 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	/** Time from finishing the level to screen change. */
 	private Cooldown screenFinishedCooldown;
 	private Cooldown shootingCooldown;
-	/** Set of all bullets fired by on screen ships. */
-	private Set<Bullet> bullets;
+	/** All bullets fired by on screen ships. */
+	private BulletStore bullets;
 	/** Current score. */
 	private String name1;
 
@@ -87,6 +89,8 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	private boolean bonusLife;
 	/** Player number for two player mode **/
 	private int playerNumber;
+	/** Times the phases of each frame. */
+	private FrameProfiler profiler;
 	/** list of highScores for find recode. */
 	private List<Score>highScores;
 	/** Elapsed time while playing this game.
@@ -99,9 +103,10 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	private String alertMessage;
 	/** checks if it's executed. */
   	private boolean isExecuted = false;
-	/** timer.. */
-	private Timer timer;
-	private TimerTask timerTask;
+	/** Time without a hit until the combo is lost. */
+	private Cooldown comboCooldown;
+	/** If the combo is lost once the combo cooldown finishes. */
+	private boolean comboTimed;
 	/** Spider webs restricting player movement */
 	private List<Web> web;
 	/**
@@ -126,6 +131,26 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	private Set<ItemBox> itemBoxes;
 	/** Barriers appear in game screen. */
 	private Set<Barrier> barriers;
+	/** Barriers near each bullet, rebuilt every collision check. */
+	private SpatialGrid<Barrier> barrierGrid;
+	/** Blocks near each bullet or enemy, rebuilt every collision check. */
+	private SpatialGrid<Block> blockGrid;
+	/** Boxes of the bullets, tested against the ship all at once. */
+	private CollisionKernel bulletBoxes;
+	/** Pools of the game, kept from one level to the next. */
+	private final EntityPools pools;
+	/** Barriers removed from the screen, shared with the item manager. */
+	private final EntityPool<Barrier> barrierPool;
+	/** Item boxes picked up. */
+	private final EntityPool<ItemBox> itemBoxPool;
+	/** Blocks crashed into by enemy ships. */
+	private final EntityPool<Block> blockPool;
+	/** Spider webs. */
+	private final EntityPool<Web> webPool;
+	/** Blockers gone off screen. */
+	private final EntityPool<Blocker> blockerPool;
+	/** Special ships destroyed or escaped. */
+	private final EntityPool<EnemyShip> specialShipPool;
 	/** Sound balance for each player*/
 	private float balance = 0.0f;
 
@@ -150,12 +175,23 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	 *            Screen height.
 	 * @param fps
 	 *            Frames per second, frame rate at which the game is run.
+	 * @param pools
+	 *            Pools of the game, recycled into at the end of the level.
 	 */
 	public GameScreen(final GameState gameState,
 			final GameSettings gameSettings, final boolean bonusLife,
-			final int width, final int height, final int fps, final Wallet wallet) {
+			final int width, final int height, final int fps, final Wallet wallet,
+			final EntityPools pools) {
 		super(width, height, fps);
 
+		this.pools = pools;
+		this.barrierPool = pools.getBarrierPool();
+		this.itemBoxPool = pools.getItemBoxPool();
+		this.blockPool = pools.getBlockPool();
+		this.webPool = pools.getWebPool();
+		this.blockerPool = pools.getBlockerPool();
+		this.specialShipPool = pools.getSpecialShipPool();
+
 		this.gameSettings = gameSettings;
 		this.gameState = gameState;
 		this.bonusLife = bonusLife;
@@ -186,7 +222,7 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		this.wallet = wallet;
 
 
-		this.random = new Random();
+		this.random = Core.getRandom();
 		this.blockerVisible = false;
 		this.blockerCooldown = Core.getVariableCooldown(10000, 14000);
 		this.blockerCooldown.reset();
@@ -217,14 +253,16 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	 *            Screen height.
 	 * @param fps
 	 *            Frames per second, frame rate at which the game is run.
+	 * @param pools
+	 *            Pools of the game of the player.
 	 * @param playerNumber
 	 *            Player number for two player mode
 	 */
 	public GameScreen(final GameState gameState,
 					  final GameSettings gameSettings, final boolean bonusLife,
 					  final int width, final int height, final int fps, final Wallet wallet,
-					  final int playerNumber) {
-		this(gameState, gameSettings, bonusLife, width, height, fps, wallet);
+					  final EntityPools pools, final int playerNumber) {
+		this(gameState, gameSettings, bonusLife, width, height, fps, wallet, pools);
 		this.playerNumber = playerNumber;
 		this.balance = switch (playerNumber) {
 			case 0: yield -1.0f; // 1P
@@ -239,6 +277,10 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	public final void initialize() {
 		super.initialize();
 
+		this.profiler = new FrameProfiler(playerNumber >= 0
+				? "level " + this.level + " of player " + (playerNumber + 1)
+				: "level " + this.level);
+
 		enemyShipFormation = new EnemyShipFormation(this.gameSettings, this.gameState);
 		enemyShipFormation.attach(this);
         // Appears each 10-30 seconds.
@@ -249,8 +291,10 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		int web_count = 1 + level / 3;
 		web = new ArrayList<>();
 		for(int i = 0; i < web_count; i++) {
-			double randomValue = Math.random();
-			this.web.add(new Web((int) Math.max(0, randomValue * width - 12 * 2), this.height - 30));
+			double randomValue = this.random.nextDouble();
+			Web newWeb = this.webPool.get();
+			newWeb.reset((int) Math.max(0, randomValue * width - 12 * 2), this.height - 30);
+			this.web.add(newWeb);
 			this.logger.info("Spider web creation location : " + web.get(i).getPositionX());
 		}
 		//Create random Block.
@@ -259,16 +303,15 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		int enemyBottomY = 100 + (gameSettings.getFormationHeight() - 1) * 48;
 		this.block = new ArrayList<Block>();
 		for (int i = 0; i < blockCount; i++) {
-			Block newBlock;
+			Block newBlock = this.blockPool.get();
 			boolean overlapping;
 			do {
-				newBlock = new Block(0,0);
-				int positionX = (int) (Math.random() * (this.width - newBlock.getWidth()));
-				int positionY = (int) (Math.random() * (playerTopY_contain_barrier - enemyBottomY - newBlock.getHeight())) + enemyBottomY;
-				newBlock = new Block(positionX, positionY);
+				int positionX = (int) (this.random.nextDouble() * (this.width - newBlock.getWidth()));
+				int positionY = (int) (this.random.nextDouble() * (playerTopY_contain_barrier - enemyBottomY - newBlock.getHeight())) + enemyBottomY;
+				newBlock.reset(positionX, positionY);
 				overlapping = false;
 				for (Block block : block) {
-					if (checkCollision(newBlock, block)) {
+					if (checkBoxes(newBlock, block)) {
 						overlapping = true;
 						break;
 					}
@@ -286,13 +329,18 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		this.enemyShipSpecialExplosionCooldown = Core
 				.getCooldown(BONUS_SHIP_EXPLOSION);
 		this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-		this.bullets = new HashSet<>();
-		this.barriers = new HashSet<>();
-        this.itemBoxes = new HashSet<>();
-		this.itemManager = new ItemManager(this.ship, this.enemyShipFormation, this.barriers, this.height, this.width, this.balance);
+		this.bullets = new BulletStore(Core.getBulletCapacity(),
+				Core.getBulletLimit());
+		this.barriers = new LinkedHashSet<>();
+        this.itemBoxes = new LinkedHashSet<>();
+		this.barrierGrid = new SpatialGrid<>(this.width, this.height, COLLISION_CELL_SIZE);
+		this.blockGrid = new SpatialGrid<>(this.width, this.height, COLLISION_CELL_SIZE);
+		this.bulletBoxes = new CollisionKernel();
+		this.comboCooldown = Core.getCooldown(COMBO_TIMEOUT);
+		this.itemManager = new ItemManager(this.ship, this.enemyShipFormation, this.barriers, this.barrierPool, this.height, this.width, this.balance);
 
 		// Special input delay / countdown.
-		this.gameStartTime = System.currentTimeMillis();
+		this.gameStartTime = Core.getGameClock().now();
 		this.inputDelay = Core.getCooldown(INPUT_DELAY);
 		this.inputDelay.reset();
 		if (soundManager.isBGMPlaying(Sound.BGM_MAIN))
@@ -319,6 +367,14 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	 */
 	public final int run() {
 		super.run();
+		this.profiler.dump(this.logger);
+		this.logger.info("Bullets peaked at " + this.bullets.getHighWater()
+				+ " with a capacity of " + this.bullets.getCapacity() + ": "
+				+ this.bullets.getHits() + " added in place, "
+				+ this.bullets.getMisses() + " grew the store, "
+				+ this.bullets.getDropped() + " dropped at the limit.");
+		recycleEntities();
+		this.pools.log(this.logger);
 
 		this.score += LIFE_SCORE * (this.lives - 1);
 		if(this.lives == 0) this.score += 100;
@@ -327,43 +383,71 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		return this.returnCode;
 	}
 
+	/**
+	 * Returns the entities still on screen at the end of the level to the
+	 * pools, for the next level to reuse.
+	 */
+	private void recycleEntities() {
+		this.webPool.recycleAll(this.web);
+		this.web.clear();
+		this.blockPool.recycleAll(this.block);
+		this.block.clear();
+		this.barrierPool.recycleAll(this.barriers);
+		this.barriers.clear();
+		this.itemBoxPool.recycleAll(this.itemBoxes);
+		this.itemBoxes.clear();
+		this.blockerPool.recycleAll(this.blockers);
+		this.blockers.clear();
+		if (this.enemyShipSpecial != null) {
+			this.specialShipPool.recycle(this.enemyShipSpecial);
+			this.enemyShipSpecial = null;
+		}
+	}
+
 	/**
 	 * Updates the elements on screen and checks for events.
 	 */
 	protected final void update() {
 		super.update();
+		long updateStart = this.profiler.start();
+		// Updated here rather than when drawing, so it doesn't depend on
+		// how many frames are drawn.
+		if (!this.inputDelay.checkFinished() && this.level > 1
+				&& (INPUT_DELAY - (Core.getGameClock().now() - this.gameStartTime)) / 1000 == 0) {
+			//Reset mac combo and edit temporary values
+			this.lapTime = this.elapsedTime;
+			this.tempScore = this.score;
+			this.maxCombo = 0;
+		}
 		if (this.inputDelay.checkFinished() && !this.levelFinished) {
+			long inputStart = this.profiler.start();
 			boolean player1Attacking = inputManager.isKeyDown(KeyEvent.VK_SPACE);
 			boolean player2Attacking = inputManager.isKeyDown(KeyEvent.VK_SHIFT);
 
 			if (player1Attacking && player2Attacking) {
 				// Both players are attacking
-				if (this.ship.shoot(this.bullets, this.itemManager.getShotNum()))
-					this.bulletsShot += this.itemManager.getShotNum();
+				this.bulletsShot += this.ship.shoot(this.bullets, this.itemManager.getShotNum());
 			} else {
 				switch (playerNumber) {
 					case 1:
 						if (player2Attacking) {
-							if (this.ship.shoot(this.bullets, this.itemManager.getShotNum(), 1.0f)) // Player 1 attack
-								this.bulletsShot += this.itemManager.getShotNum();
+							this.bulletsShot += this.ship.shoot(this.bullets, this.itemManager.getShotNum(), 1.0f); // Player 1 attack
 						}
 						break;
 					case 0:
 						if (player1Attacking) {
-							if (this.ship.shoot(this.bullets, this.itemManager.getShotNum(), -1.0f)) // Player 1 attack
-								this.bulletsShot += this.itemManager.getShotNum();
+							this.bulletsShot += this.ship.shoot(this.bullets, this.itemManager.getShotNum(), -1.0f); // Player 1 attack
 						}
 						break;
 					default: //playerNumber = -1
 						if (player1Attacking) {
-							if (this.ship.shoot(this.bullets, this.itemManager.getShotNum(), 0.0f)) // Player 1 attack
-								this.bulletsShot += this.itemManager.getShotNum();
+							this.bulletsShot += this.ship.shoot(this.bullets, this.itemManager.getShotNum(), 0.0f); // Player 1 attack
 						}
 						break;
 				}
 			}
 			/*Elapsed Time Update*/
-			long currentTime = System.currentTimeMillis();
+			long currentTime = Core.getGameClock().now();
 
 			if (this.prevTime != null)
 				this.elapsedTime += (int) (currentTime - this.prevTime);
@@ -422,17 +506,21 @@ public class GameScreen extends Screen implements Callable<GameState> {
 					}
 				}
 			}
+			this.profiler.record(FrameProfiler.Phase.INPUT, inputStart);
 
 			if (this.enemyShipSpecial != null) {
 				if (!this.enemyShipSpecial.isDestroyed())
 					this.enemyShipSpecial.move(2, 0);
-				else if (this.enemyShipSpecialExplosionCooldown.checkFinished())
+				else if (this.enemyShipSpecialExplosionCooldown.checkFinished()) {
+					this.specialShipPool.recycle(this.enemyShipSpecial);
 					this.enemyShipSpecial = null;
+				}
 
 			}
 			if (this.enemyShipSpecial == null
 					&& this.enemyShipSpecialCooldown.checkFinished()) {
-				this.enemyShipSpecial = new EnemyShip();
+				this.enemyShipSpecial = this.specialShipPool.get();
+				this.enemyShipSpecial.reset();
 				this.alertMessage = "";
 				this.enemyShipSpecialCooldown.reset();
 				soundManager.playSound(Sound.UFO_APPEAR, balance);
@@ -457,6 +545,7 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			}
 			if (this.enemyShipSpecial != null
 					&& this.enemyShipSpecial.getPositionX() > this.width) {
+				this.specialShipPool.recycle(this.enemyShipSpecial);
 				this.enemyShipSpecial = null;
 				this.logger.info("The special ship has escaped");
 			}
@@ -465,7 +554,9 @@ public class GameScreen extends Screen implements Callable<GameState> {
 
 			// If Time-stop is active, Stop updating enemy ships' move and their shoots.
 			if (!itemManager.isTimeStopActive()) {
+				long formationStart = this.profiler.start();
 				this.enemyShipFormation.update();
+				this.profiler.record(FrameProfiler.Phase.FORMATION, formationStart);
 				this.enemyShipFormation.shoot(this.bullets, this.level, balance);
 			}
 
@@ -474,12 +565,12 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			}
 		}
 
+		long phaseStart = this.profiler.start();
 		manageCollisions();
+		this.profiler.record(FrameProfiler.Phase.COLLISIONS, phaseStart);
+		phaseStart = this.profiler.start();
 		cleanBullets();
-		if (playerNumber >= 0)
-			drawThread();
-		else
-			draw();
+		this.profiler.record(FrameProfiler.Phase.CLEAN_BULLETS, phaseStart);
 
 		if ((this.enemyShipFormation.isEmpty() || this.lives <= 0)
 				&& !this.levelFinished) {
@@ -496,12 +587,26 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			this.alertMessage = "";
 			this.isRunning = false;
 		}
+		this.profiler.record(FrameProfiler.Phase.UPDATE, updateStart);
 	}
 
 	/**
-	 * Draws the elements associated with the screen.
+	 * Draws the elements associated with the screen, or to the thread
+	 * buffer in two player mode.
 	 */
-	private void draw() {
+	protected final void draw() {
+		long drawStart = this.profiler.start();
+		if (playerNumber >= 0)
+			drawThread();
+		else
+			drawScreen();
+		this.profiler.record(FrameProfiler.Phase.DRAW, drawStart);
+	}
+
+	/**
+	 * Draws the elements associated with the screen on the frame.
+	 */
+	private void drawScreen() {
 		drawManager.initDrawing(this);
 		drawManager.drawGameTitle(this);
 
@@ -533,9 +638,7 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		for (Barrier barrier : this.barriers)
 			drawManager.drawEntity(barrier, barrier.getPositionX(), barrier.getPositionY());
 
-		for (Bullet bullet : this.bullets)
-			drawManager.drawEntity(bullet, bullet.getPositionX(),
-					bullet.getPositionY());
+		drawManager.drawBullets(this.bullets);
 
 
 		// Interface.
@@ -551,23 +654,15 @@ public class GameScreen extends Screen implements Callable<GameState> {
 
 		// Countdown to game start.
 		if (!this.inputDelay.checkFinished()) {
-			int countdown = (int) ((INPUT_DELAY - (System.currentTimeMillis() - this.gameStartTime)) / 1000);
+			int countdown = (int) ((INPUT_DELAY - (Core.getGameClock().now() - this.gameStartTime)) / 1000);
 			drawManager.drawCountDown(this, this.level, countdown, this.bonusLife);
 			drawManager.drawHorizontalLine(this, this.height / 2 - this.height / 12);
 			drawManager.drawHorizontalLine(this, this.height / 2 + this.height / 12);
 
 			//Intermediate aggregation
-			if (this.level > 1){
-                if (countdown == 0) {
-					//Reset mac combo and edit temporary values
-                    this.lapTime = this.elapsedTime;
-                    this.tempScore = this.score;
-                    this.maxCombo = 0;
-                } else {
-					// Don't show it just before the game starts, i.e. when the countdown is zero.
-                    drawManager.interAggre(this, this.level - 1, this.maxCombo, this.elapsedTime, this.lapTime, this.score, this.tempScore);
-                }
-			}
+			// Don't show it just before the game starts, i.e. when the countdown is zero.
+			if (this.level > 1 && countdown != 0)
+				drawManager.interAggre(this, this.level - 1, this.maxCombo, this.elapsedTime, this.lapTime, this.score, this.tempScore);
 		}
 
 
@@ -582,7 +677,9 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			}
 		}
 
+		long completeStart = this.profiler.start();
 		drawManager.completeDrawing(this);
+		this.profiler.record(FrameProfiler.Phase.COMPLETE_DRAWING, completeStart);
 	}
 
 
@@ -612,23 +709,20 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			boolean moveLeft = random.nextBoolean(); // Randomly sets the movement direction of the current blocker
 			int startY = random.nextInt(this.height - 90) + 25; // Random Y position with margins at the top and bottom of the screen
 			int startX = moveLeft ? this.width + 300 : -300; // If you want to move left, outside the right side of the screen, if you want to move right, outside the left side of the screen.
-			// Add new Blocker
-			if (moveLeft) {
-				blockers.add(new Blocker(startX, startY, newSprite, moveLeft)); // move from right to left
-			} else {
-				blockers.add(new Blocker(startX, startY, newSprite, moveLeft)); // move from left to right
-			}
+			// Add new Blocker, moving from right to left or from left to right
+			Blocker newBlocker = blockerPool.get();
+			newBlocker.reset(startX, startY, newSprite, moveLeft);
+			blockers.add(newBlocker);
 			blockerCooldown.reset();
 		}
 
 		// Items in the blocker list that will disappear after leaving the screen
-		List<Blocker> toRemove = new ArrayList<>();
 		for (int i = 0; i < blockers.size(); i++) {
 			Blocker blocker = blockers.get(i);
 
 			// If the blocker leaves the screen, remove it directly from the list.
 			if (blocker.getMoveLeft() && blocker.getPositionX() < -300 || !blocker.getMoveLeft() && blocker.getPositionX() > this.width + 300) {
-				blockers.remove(i);
+				blockerPool.recycle(blockers.remove(i));
 				i--; // When an element is removed from the list, the index must be decreased by one place.
 				continue;
 			}
@@ -641,9 +735,6 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			}
 			blocker.rotate(0.2); // Blocker rotation
 		}
-
-		// Remove from the blocker list that goes off screen
-		blockers.removeAll(toRemove);
 	}
 
 	/**
@@ -655,6 +746,7 @@ public class GameScreen extends Screen implements Callable<GameState> {
 
 		drawManager.drawLaunchTrajectory( this,this.ship.getPositionX(), playerNumber);
 
+		drawManager.beginSpriteBatch(playerNumber);
 		drawManager.drawEntity(this.ship, this.ship.getPositionX(),
 				this.ship.getPositionY(), playerNumber);
 
@@ -681,9 +773,8 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		for (Barrier barrier : this.barriers)
 			drawManager.drawEntity(barrier, barrier.getPositionX(), barrier.getPositionY(), playerNumber);
 
-		for (Bullet bullet : this.bullets)
-			drawManager.drawEntity(bullet, bullet.getPositionX(),
-					bullet.getPositionY(), playerNumber);
+		drawManager.drawBullets(this.bullets, playerNumber);
+		drawManager.endSpriteBatch(playerNumber);
 
 		// Interface.
 		drawManager.drawScore(this, this.score, playerNumber);
@@ -706,7 +797,7 @@ public class GameScreen extends Screen implements Callable<GameState> {
 
 		// Countdown to game start.
 		if (!this.inputDelay.checkFinished()) {
-			int countdown = (int) ((INPUT_DELAY - (System.currentTimeMillis() - this.gameStartTime)) / 1000);
+			int countdown = (int) ((INPUT_DELAY - (Core.getGameClock().now() - this.gameStartTime)) / 1000);
 			drawManager.drawCountDown(this, this.level, countdown,
 					this.bonusLife, playerNumber);
 			drawManager.drawHorizontalLine(this, this.height / 2 - this.height
@@ -715,17 +806,9 @@ public class GameScreen extends Screen implements Callable<GameState> {
 					/ 12, playerNumber);
 
 			//Intermediate aggregation
-			if (this.level > 1){
-				if (countdown == 0) {
-					//Reset mac combo and edit temporary values
-					this.lapTime = this.elapsedTime;
-					this.tempScore = this.score;
-					this.maxCombo = 0;
-				} else {
-					// Don't show it just before the game starts, i.e. when the countdown is zero.
-					drawManager.interAggre(this, this.level - 1, this.maxCombo, this.elapsedTime, this.lapTime, this.score, this.tempScore, playerNumber);
-				}
-			}
+			// Don't show it just before the game starts, i.e. when the countdown is zero.
+			if (this.level > 1 && countdown != 0)
+				drawManager.interAggre(this, this.level - 1, this.maxCombo, this.elapsedTime, this.lapTime, this.score, this.tempScore, playerNumber);
 		}
 
 		//add drawRecord method for drawing
@@ -733,44 +816,55 @@ public class GameScreen extends Screen implements Callable<GameState> {
 
 		// Blocker drawing part
 		if (!blockers.isEmpty()) {
+			drawManager.beginSpriteBatch(playerNumber);
 			for (Blocker blocker : blockers) {
 				drawManager.drawRotatedEntity(blocker, blocker.getPositionX(), blocker.getPositionY(), blocker.getAngle(), playerNumber);
 			}
+			drawManager.endSpriteBatch(playerNumber);
 		}
 
+		long completeStart = this.profiler.start();
 		drawManager.flushBuffer(this, playerNumber);
+		this.profiler.record(FrameProfiler.Phase.COMPLETE_DRAWING, completeStart);
 	}
 
 	/**
 	 * Cleans bullets that go off screen.
 	 */
 	private void cleanBullets() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
-		for (Bullet bullet : this.bullets) {
-			bullet.update();
-			if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-					|| bullet.getPositionY() > this.height)
-				recyclable.add(bullet);
-		}
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
+		this.bullets.update();
+		for (int i = 0; i < this.bullets.size(); i++)
+			if (this.bullets.getPositionY(i) < SEPARATION_LINE_HEIGHT
+					|| this.bullets.getPositionY(i) > this.height)
+				this.bullets.mark(i);
+		this.bullets.sweep();
 	}
 
 	/**
-	 * Manages collisions between bullets and ships.
+	 * Manages collisions between bullets and ships. Barriers and blocks
+	 * are sorted into grids first, and enemy ships are found from their
+	 * place in the formation, so each bullet is only checked against the
+	 * ones near it, still in their usual order. Every bullet is tested
+	 * against the player ship in one batch beforehand. Bullets hitting
+	 * something are marked and removed together at the end.
 	 */
 	private void manageCollisions() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
+		buildCollisionGrids();
+		this.bulletBoxes.clear();
+		for (int i = 0; i < this.bullets.size(); i++)
+			this.bulletBoxes.add(this.bullets.getPositionX(i),
+					this.bullets.getPositionY(i), BulletStore.WIDTH,
+					BulletStore.HEIGHT);
+		this.bulletBoxes.test(this.ship);
 
 		if (isExecuted == false){
 			isExecuted = true;
-			timer = new Timer();
-			timerTask = new TimerTask() {
-				public void run() {
-					combo = 0;
-				}
-			};
-			timer.schedule(timerTask, 3000);
+			this.comboCooldown.reset();
+			this.comboTimed = true;
+		}
+		if (this.comboTimed && this.comboCooldown.checkFinished()) {
+			this.combo = 0;
+			this.comboTimed = false;
 		}
 
 		int topEnemyY = Integer.MAX_VALUE;
@@ -783,12 +877,16 @@ public class GameScreen extends Screen implements Callable<GameState> {
 			topEnemyY = this.enemyShipSpecial.getPositionY();
 		}
 
-		for (Bullet bullet : this.bullets) {
+		for (int bullet = 0; bullet < this.bullets.size(); bullet++) {
+			int bulletX = this.bullets.getPositionX(bullet);
+			int bulletY = this.bullets.getPositionY(bullet);
+			boolean hitsShip = this.bulletBoxes.hit(bullet)
+					&& checkSprites(bullet, this.ship);
 
 			// Enemy ship's bullets
-			if (bullet.getSpeed() > 0) {
-				if (checkCollision(bullet, this.ship) && !this.levelFinished && !itemManager.isGhostActive()) {
-					recyclable.add(bullet);
+			if (this.bullets.getOwner(bullet) == BulletStore.ENEMY) {
+				if (hitsShip && !this.levelFinished && !itemManager.isGhostActive()) {
+					this.bullets.mark(bullet);
 					if (!this.ship.isDestroyed()) {
 						this.ship.destroy(balance);
 						lvdamage();
@@ -796,23 +894,27 @@ public class GameScreen extends Screen implements Callable<GameState> {
 					}
 				}
 
-				if (this.barriers != null) {
-					Iterator<Barrier> barrierIterator = this.barriers.iterator();
-					while (barrierIterator.hasNext()) {
-						Barrier barrier = barrierIterator.next();
-						if (checkCollision(bullet, barrier)) {
-							recyclable.add(bullet);
-							barrier.reduceHealth(balance);
-							if (barrier.isDestroyed()) {
-								barrierIterator.remove();
-							}
+				int nearBarriers = this.barrierGrid.query(bulletX, bulletY,
+						BulletStore.WIDTH, BulletStore.HEIGHT);
+				for (int i = 0; i < nearBarriers; i++) {
+					Barrier barrier = this.barrierGrid.result(i);
+					// Barriers destroyed this tick are already removed.
+					if (!barrier.isDestroyed() && checkCollision(bullet, barrier)) {
+						this.bullets.mark(bullet);
+						barrier.reduceHealth(balance);
+						if (barrier.isDestroyed()) {
+							this.barriers.remove(barrier);
+							this.barrierPool.recycle(barrier);
 						}
 					}
 				}
 
 			} else {	// Player ship's bullets
-				for (EnemyShip enemyShip : this.enemyShipFormation)
-					if (enemyShip != null && !enemyShip.isDestroyed()
+				int nearEnemies = this.enemyShipFormation.query(bulletX,
+						bulletY, BulletStore.WIDTH, BulletStore.HEIGHT);
+				for (int i = 0; i < nearEnemies; i++) {
+					EnemyShip enemyShip = this.enemyShipFormation.result(i);
+					if (!enemyShip.isDestroyed()
 							&& checkCollision(bullet, enemyShip)) {
 						// Decide whether to destroy according to physical strength
 						this.enemyShipFormation.HealthManageDestroy(enemyShip, balance);
@@ -823,15 +925,18 @@ public class GameScreen extends Screen implements Callable<GameState> {
 						this.combo++;
 						this.hitBullets++;
 						if (this.combo > this.maxCombo) this.maxCombo = this.combo;
-						timer.cancel();
+						this.comboTimed = false;
 						isExecuted = false;
-						recyclable.add(bullet);
+						this.bullets.mark(bullet);
 
 						if (enemyShip.getHealth() < 0 && itemManager.dropItem()) {
-							this.itemBoxes.add(new ItemBox(enemyShip.getPositionX() + 6, enemyShip.getPositionY() + 1, balance));
+							ItemBox itemBox = this.itemBoxPool.get();
+							itemBox.reset(enemyShip.getPositionX() + 6, enemyShip.getPositionY() + 1, balance);
+							this.itemBoxes.add(itemBox);
 							logger.info("Item box dropped");
 						}
 					}
+				}
 
 				if (this.enemyShipSpecial != null
 						&& !this.enemyShipSpecial.isDestroyed()
@@ -843,13 +948,13 @@ public class GameScreen extends Screen implements Callable<GameState> {
 					if (this.combo > this.maxCombo) this.maxCombo = this.combo;
 					this.enemyShipSpecial.destroy(balance);
 					this.enemyShipSpecialExplosionCooldown.reset();
-					timer.cancel();
+					this.comboTimed = false;
 					isExecuted = false;
 
-					recyclable.add(bullet);
+					this.bullets.mark(bullet);
 				}
 
-				if (this.itemManager.getShotNum() == 1 && bullet.getPositionY() < topEnemyY) {
+				if (this.itemManager.getShotNum() == 1 && bulletY < topEnemyY) {
 					this.combo = 0;
 					isExecuted = true;
 				}
@@ -860,8 +965,11 @@ public class GameScreen extends Screen implements Callable<GameState> {
 					if (checkCollision(bullet, itemBox) && !itemBox.isDroppedRightNow()) {
 						this.hitBullets++;
 						itemBoxIterator.remove();
-						recyclable.add(bullet);
+						this.itemBoxPool.recycle(itemBox);
+						this.bullets.mark(bullet);
 						Entry<Integer, Integer> itemResult = this.itemManager.useItem();
+						// The barrier item replaces the barriers.
+						buildBarrierGrid();
 
 						if (itemResult != null) {
 							this.score += itemResult.getKey();
@@ -871,9 +979,11 @@ public class GameScreen extends Screen implements Callable<GameState> {
 				}
 
 				//check the collision between the obstacle and the bullet
-				for (Block block : this.block) {
-					if (checkCollision(bullet, block)) {
-						recyclable.add(bullet);
+				int nearBlocks = this.blockGrid.query(bulletX, bulletY,
+						BulletStore.WIDTH, BulletStore.HEIGHT);
+				for (int i = 0; i < nearBlocks; i++) {
+					if (checkCollision(bullet, this.blockGrid.result(i))) {
+						this.bullets.mark(bullet);
                         soundManager.playSound(Sound.BULLET_BLOCKING, balance);
 						break;
 					}
@@ -882,25 +992,48 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		}
 
 		//check the collision between the obstacle and the enemyship
-		Set<Block> removableBlocks = new HashSet<>();
 		for (EnemyShip enemyShip : this.enemyShipFormation) {
 			if (enemyShip != null && !enemyShip.isDestroyed()) {
-				for (Block block : block) {
-					if (checkCollision(enemyShip, block)) {
-						removableBlocks.add(block);
+				int nearBlocks = this.blockGrid.query(enemyShip);
+				for (int i = 0; i < nearBlocks; i++) {
+					// The grid still lists blocks already removed this tick.
+					Block crashed = this.blockGrid.result(i);
+					if (checkCollision(enemyShip, crashed) && block.remove(crashed)) {
+						this.blockPool.recycle(crashed);
 					}
 				}
 			}
 		}
 
-		// remove crashed obstacle
-		block.removeAll(removableBlocks);
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
+		this.bullets.sweep();
 	}
 
 	/**
-	 * Checks if two entities are colliding.
+	 * Sorts the barriers and blocks at their current position into the
+	 * collision grids.
+	 */
+	private void buildCollisionGrids() {
+		buildBarrierGrid();
+
+		this.blockGrid.clear();
+		for (Block block : this.block)
+			this.blockGrid.add(block);
+		this.blockGrid.build();
+	}
+
+	/**
+	 * Sorts the barriers into their collision grid.
+	 */
+	private void buildBarrierGrid() {
+		this.barrierGrid.clear();
+		for (Barrier barrier : this.barriers)
+			this.barrierGrid.add(barrier);
+		this.barrierGrid.build();
+	}
+
+	/**
+	 * Checks if two entities are colliding: their boxes overlap, and so do
+	 * the lit pixels of their sprites.
 	 * 
 	 * @param a
 	 *            First entity, the bullet.
@@ -909,14 +1042,96 @@ public class GameScreen extends Screen implements Callable<GameState> {
 	 * @return Result of the collision test.
 	 */
 	private boolean checkCollision(final Entity a, final Entity b) {
+		return checkBoxes(a, b) && checkSprites(a, b);
+	}
+
+	/**
+	 * Checks if a bullet is colliding with an entity, as checkCollision
+	 * does for two entities.
+	 *
+	 * @param bullet
+	 *            Index of the bullet.
+	 * @param b
+	 *            Entity, the ship.
+	 * @return Result of the collision test.
+	 */
+	private boolean checkCollision(final int bullet, final Entity b) {
+		return checkBoxes(this.bullets.getPositionX(bullet),
+				this.bullets.getPositionY(bullet), BulletStore.WIDTH,
+				BulletStore.HEIGHT, b) && checkSprites(bullet, b);
+	}
+
+	/**
+	 * Checks if the lit pixels of a bullet and an entity overlap, once
+	 * their boxes are known to.
+	 *
+	 * @param bullet
+	 *            Index of the bullet.
+	 * @param b
+	 *            Entity, the ship.
+	 * @return Result of the collision test, true without sprite masks.
+	 */
+	private boolean checkSprites(final int bullet, final Entity b) {
+		CollisionMasks masks = this.drawManager.getCollisionMasks();
+		return masks == null || masks.collide(this.bullets.getSpriteType(bullet),
+				this.bullets.getPositionX(bullet),
+				this.bullets.getPositionY(bullet), b);
+	}
+
+	/**
+	 * Checks if the lit pixels of two entities overlap, once their boxes
+	 * are known to.
+	 *
+	 * @param a
+	 *            First entity, the bullet.
+	 * @param b
+	 *            Second entity, the ship.
+	 * @return Result of the collision test, true without sprite masks.
+	 */
+	private boolean checkSprites(final Entity a, final Entity b) {
+		CollisionMasks masks = this.drawManager.getCollisionMasks();
+		return masks == null || masks.collide(a, b);
+	}
+
+	/**
+	 * Checks if the boxes of two entities are colliding.
+	 * 
+	 * @param a
+	 *            First entity, the bullet.
+	 * @param b
+	 *            Second entity, the ship.
+	 * @return Result of the collision test.
+	 */
+	private boolean checkBoxes(final Entity a, final Entity b) {
+		return checkBoxes(a.getPositionX(), a.getPositionY(), a.getWidth(),
+				a.getHeight(), b);
+	}
+
+	/**
+	 * Checks if a box is colliding with the box of an entity.
+	 *
+	 * @param positionX
+	 *            Position of the box in the x-axis.
+	 * @param positionY
+	 *            Position of the box in the y-axis.
+	 * @param width
+	 *            Width of the box.
+	 * @param height
+	 *            Height of the box.
+	 * @param b
+	 *            Entity, the ship.
+	 * @return Result of the collision test.
+	 */
+	private boolean checkBoxes(final int positionX, final int positionY,
+			final int width, final int height, final Entity b) {
 		// Calculate center point of the entities in both axis.
-		int centerAX = a.getPositionX() + a.getWidth() / 2;
-		int centerAY = a.getPositionY() + a.getHeight() / 2;
+		int centerAX = positionX + width / 2;
+		int centerAY = positionY + height / 2;
 		int centerBX = b.getPositionX() + b.getWidth() / 2;
 		int centerBY = b.getPositionY() + b.getHeight() / 2;
 		// Calculate maximum distance without collision.
-		int maxDistanceX = a.getWidth() / 2 + b.getWidth() / 2;
-		int maxDistanceY = a.getHeight() / 2 + b.getHeight() / 2;
+		int maxDistanceX = width / 2 + b.getWidth() / 2;
+		int maxDistanceY = height / 2 + b.getHeight() / 2;
 		// Calculates distance.
 		int distanceX = Math.abs(centerAX - centerBX);
 		int distanceY = Math.abs(centerAY - centerBY);
@@ -924,6 +1139,57 @@ public class GameScreen extends Screen implements Callable<GameState> {
 		return distanceX < maxDistanceX && distanceY < maxDistanceY;
 	}
 
+	/**
+	 * Returns a hash of the score, lives, combo, random layout and the
+	 * position of every entity, checked against the recorded one while a
+	 * replay is played back.
+	 *
+	 * @return Hash of the game state.
+	 */
+	@Override
+	public final long stateHash() {
+		long hash = Core.getGameClock().now();
+		hash = hash * 31 + this.score;
+		hash = hash * 31 + this.lives;
+		hash = hash * 31 + this.combo;
+		hash = hash * 31 + this.maxCombo;
+		hash = hash * 31 + this.bulletsShot;
+		hash = hash * 31 + this.shipsDestroyed;
+		hash = hash * 31 + this.elapsedTime;
+		hash = hash * 31 + entityHash(this.ship);
+		hash = hash * 31 + entityHash(this.enemyShipSpecial);
+		for (EnemyShip enemyShip : this.enemyShipFormation)
+			hash = hash * 31 + entityHash(enemyShip);
+		for (int i = 0; i < this.bullets.size(); i++)
+			hash = hash * 31 + this.bullets.getPositionX(i) * 65599L
+					+ this.bullets.getPositionY(i);
+		for (ItemBox itemBox : this.itemBoxes)
+			hash = hash * 31 + entityHash(itemBox);
+		for (Barrier barrier : this.barriers)
+			hash = hash * 31 + entityHash(barrier);
+		for (Block block : this.block)
+			hash = hash * 31 + entityHash(block);
+		for (Web web : this.web)
+			hash = hash * 31 + entityHash(web);
+		for (Blocker blocker : this.blockers)
+			hash = hash * 31 + entityHash(blocker)
+					+ Double.hashCode(blocker.getAngle());
+		return hash;
+	}
+
+	/**
+	 * Returns a hash of the position of an entity.
+	 *
+	 * @param entity
+	 *            Entity to hash, may be null.
+	 * @return Hash of the entity position.
+	 */
+	private static long entityHash(final Entity entity) {
+		if (entity == null)
+			return 0;
+		return entity.getPositionX() * 65599L + entity.getPositionY();
+	}
+
 	/**
 	 * Returns a GameState object representing the status of the game.
 	 * 
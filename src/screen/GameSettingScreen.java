@@ -89,7 +89,6 @@ public class GameSettingScreen extends Screen {
 	protected final void update() {
 		super.update();
 
-		draw();
 		if (this.inputDelay.checkFinished() && this.selectionCooldown.checkFinished()) {
 			if (inputManager.isKeyDown(KeyEvent.VK_UP)){
 				this.selectedRow = (this.selectedRow - 1 + TOTAL_ROWS) % TOTAL_ROWS;
@@ -199,19 +198,26 @@ public class GameSettingScreen extends Screen {
 	 */
 	public static String getName(int playerNumber) { return playerNumber == 0 ? name1 : name2; }
 
+	/** Everything the screen shows, to redraw it only when it changes. */
+	private record Model(int selectedRow, int difficultyLevel,
+			boolean isMultiplayer, String name1, String name2) {
+	}
+
 	/**
 	 * Draws the elements associated with the screen.
 	 */
-	private void draw() {
-		drawManager.initDrawing(this);
+	protected final void draw() {
+		Model model = new Model(this.selectedRow, this.difficultyLevel,
+				isMultiplayer, name1, name2);
+		if (drawManager.beginLayer(this, model)) {
+			drawManager.drawGameSetting(this);
 
-		drawManager.drawGameSetting(this);
+			drawManager.drawGameSettingRow(this, this.selectedRow);
 
-		drawManager.drawGameSettingRow(this, this.selectedRow);
+			drawManager.drawGameSettingElements(this, this.selectedRow, isMultiplayer, name1, name2,this.difficultyLevel);
 
-		drawManager.drawGameSettingElements(this, this.selectedRow, isMultiplayer, name1, name2,this.difficultyLevel);
-
-		drawManager.completeDrawing(this);
+			drawManager.completeDrawing(this);
+		}
 
 		Core.setLevelSetting(this.difficultyLevel);
 	}
@@ -2,11 +2,14 @@ package screen;
 
 import java.awt.Insets;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
+import engine.FramePacer;
+import engine.GameClock;
 import engine.InputManager;
 
 /**
@@ -19,6 +22,10 @@ public class Screen {
 	
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Most updates run to catch up before the late time is dropped. */
+	private static final int MAX_CATCH_UP_TICKS = 5;
+	/** Time before a deadline spent spinning instead of parked. */
+	private static final long SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
@@ -74,37 +81,129 @@ public class Screen {
 	}
 
 	/**
-	 * Activates the screen.
+	 * Activates the screen. The screen is updated at a fixed rate of fps
+	 * ticks per second measured with System.nanoTime, however long each
+	 * frame takes, and drawn once after every batch of updates. When
+	 * frames run late, up to MAX_CATCH_UP_TICKS updates are run to catch
+	 * up and the rest of the late time is dropped. When updating and
+	 * drawing every frame takes longer than the ticks, the frame pacer
+	 * skips draws rather than updates, and the dropped frames are logged.
+	 *
+	 * Unless another screen loop already does, the game clock is advanced
+	 * and the keys are read by one tick before each update. When a replay
+	 * is fast forwarded or the screen simulated, it is updated as fast as
+	 * possible instead, and it is only drawn if there is a window to draw
+	 * on and it is not simulated.
 	 * 
 	 * @return Next screen code.
 	 */
 	public int run() {
 		this.isRunning = true;
 
-		while (this.isRunning) {
-			long time = System.currentTimeMillis();
-
-			update();
+		final long tickNanos = TimeUnit.SECONDS.toNanos(1) / this.fps;
+		final boolean fastForward = Core.isFastForward();
+		final boolean drawn = Core.hasFrame() && !Core.isSimulating();
+		FramePacer pacer = new FramePacer(tickNanos);
+		GameClock clock = Core.getGameClock();
+		boolean ticksClock = clock.acquire(this);
+		long previous = System.nanoTime();
+		long lag = tickNanos;
+
+		try {
+			while (this.isRunning) {
+				long now = System.nanoTime();
+				lag = fastForward ? tickNanos : Math.min(lag + now - previous,
+						MAX_CATCH_UP_TICKS * tickNanos);
+				previous = now;
+
+				boolean updated = false;
+				while (lag >= tickNanos && this.isRunning) {
+					long updateStart = System.nanoTime();
+					if (ticksClock) {
+						if (!this.inputManager.tick(this)) {
+							this.isRunning = false;
+							break;
+						}
+						clock.tick(tickNanos);
+					}
+					update();
+					pacer.updated(System.nanoTime() - updateStart);
+					lag -= tickNanos;
+					updated = true;
+				}
+				if (updated && this.isRunning && drawn
+						&& (fastForward || pacer.shouldDraw())) {
+					long drawStart = System.nanoTime();
+					draw();
+					pacer.drawn(System.nanoTime() - drawStart);
+				}
 
-			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
-			if (time > 0) {
-				try {
-					TimeUnit.MILLISECONDS.sleep(time);
-				} catch (InterruptedException e) {
+				if (!fastForward && !waitUntil(previous + tickNanos - lag))
 					return 0;
-				}
 			}
+		} finally {
+			if (ticksClock)
+				clock.release(this);
+			if (pacer.getDroppedFrames() > 0)
+				this.logger.info("Dropped " + pacer.getDroppedFrames()
+						+ " of " + (pacer.getDroppedFrames()
+						+ pacer.getDrawnFrames()) + " frames to keep "
+						+ this.fps + " updates per second.");
 		}
 
 		return 0;
 	}
 
 	/**
-	 * Updates the elements on screen and checks for events.
+	 * Waits until a deadline, parked until the last SPIN_NANOS and then
+	 * spinning, so the wake up is not late by the scheduler granularity.
+	 * Virtual threads stay parked until the deadline instead, so a waiting
+	 * screen never holds a carrier thread other sessions could run on.
+	 *
+	 * @param deadline
+	 *            System.nanoTime to wait for.
+	 * @return False if the thread was interrupted while waiting.
+	 */
+	private static boolean waitUntil(final long deadline) {
+		final long spinNanos = Thread.currentThread().isVirtual() ? 0
+				: SPIN_NANOS;
+		long remaining = deadline - System.nanoTime();
+		while (remaining > 0) {
+			if (remaining > spinNanos)
+				LockSupport.parkNanos(remaining - spinNanos);
+			else
+				Thread.onSpinWait();
+			if (Thread.interrupted())
+				return false;
+			remaining = deadline - System.nanoTime();
+		}
+		return true;
+	}
+
+	/**
+	 * Updates the elements on screen and checks for events. Called at a
+	 * fixed rate of fps times per second.
 	 */
 	protected void update() {
 	}
 
+	/**
+	 * Draws the elements associated with the screen. Called once after
+	 * the updates of each frame.
+	 */
+	protected void draw() {
+	}
+
+	/**
+	 * Returns a hash of the state the updates depend on, checked against
+	 * the recorded one while a replay is played back.
+	 *
+	 * @return Hash of the screen state, 0 for screens without one.
+	 */
+	public long stateHash() {
+		return 0;
+	}
+
 	/**
 	 * Getter for screen width.
 	 * 
@@ -129,8 +129,6 @@ public class SettingScreen extends Screen {
                 soundManager.playSound(Sound.MENU_CLICK);
             }
         }
-
-        draw();
     }
 
     /**
@@ -143,11 +141,19 @@ public class SettingScreen extends Screen {
         return this.returnCode;
     }
 
+    /** Everything the screen shows, to redraw it only when it changes. */
+    private record Model(int selectedItem, int bgmVolumeLevel,
+            int sfxVolumeLevel, int currentShip) {
+    }
+
     /**
      * Draws the elements associated with the screen.
      */
-    private void draw() {
-        drawManager.initDrawing(this);
+    protected final void draw() {
+        Model model = new Model(this.selectedItem, this.bgmVolumeLevel,
+                this.sfxVolumeLevel, this.currentShip);
+        if (!drawManager.beginLayer(this, model))
+            return;
 
         drawManager.drawSettingsScreen(this);
 
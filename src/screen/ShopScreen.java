@@ -81,7 +81,6 @@ public class ShopScreen extends Screen {
     protected final void update() {
         super.update();
 
-        draw();
         if (this.selectionCooldown.checkFinished()
                 && this.inputDelay.checkFinished()
                 && this.money_alertCooldown.checkFinished()
@@ -159,9 +158,20 @@ public class ShopScreen extends Screen {
             this.selected_item--;
     }
 
-    private void draw() {
-        drawManager.initDrawing(this);
+    /** Everything the screen shows, to redraw it only when it changes. */
+    private record Model(int selectedItem, int coin, int bulletLevel,
+            int shotLevel, int livesLevel, int coinLevel,
+            boolean moneyAlert, boolean maxAlert) {
+    }
 
+    protected final void draw() {
+        Model model = new Model(this.selected_item, wallet.getCoin(),
+                wallet.getBullet_lv(), wallet.getShot_lv(),
+                wallet.getLives_lv(), wallet.getCoin_lv(),
+                !money_alertCooldown.checkFinished(),
+                !max_alertCooldown.checkFinished());
+        if (!drawManager.beginLayer(this, model))
+            return;
 
         drawManager.drawShop(this,selected_item,wallet,money_alertCooldown,max_alertCooldown);
 
@@ -70,7 +70,6 @@ public class TitleScreen extends Screen {
 	protected final void update() {
 		super.update();
 
-		draw();
 		if (this.selectionCooldown.checkFinished()
 				&& this.inputDelay.checkFinished()) {
 			if (inputManager.isKeyDown(KeyEvent.VK_UP)
@@ -126,11 +125,17 @@ public class TitleScreen extends Screen {
 			this.returnCode--;
 	}
 
+	/** Everything the screen shows, to redraw it only when it changes. */
+	private record Model(int returnCode, int coin) {
+	}
+
 	/**
 	 * Draws the elements associated with the screen.
 	 */
-	private void draw() {
-		drawManager.initDrawing(this);
+	protected final void draw() {
+		if (!drawManager.beginLayer(this,
+				new Model(this.returnCode, wallet.getCoin())))
+			return;
 
 		drawManager.drawTitle(this);
 		drawManager.drawMenu(this, this.returnCode, wallet.getCoin());
@@ -1,19 +1,21 @@
 package screen;
 
 import engine.Core;
+import engine.FrameProfiler;
 import engine.GameSettings;
 import engine.GameState;
+import engine.SessionScheduler;
+import entity.EntityPools;
 import entity.Wallet;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 /**
  * Implements the Two player mode screen, where the action happens.
  */
 public class TwoPlayerScreen extends Screen {
-    /** Thread pool executor **/
-    private final ExecutorService executor;
+    /** Runs the levels of each player one after another **/
+    private final SessionScheduler sessions;
     /** Game difficulty settings each player **/
     private final GameSettings[] gameSettings = new GameSettings[2];
     /** Current game wallet **/
@@ -22,17 +24,20 @@ public class TwoPlayerScreen extends Screen {
     /** Game states for each player **/
     private final GameState[] gameStates = new GameState[2];
 
+    /** Entity pools of the game of each player **/
+    private final EntityPools[] pools = new EntityPools[2];
+
     /** Players game task **/
     private final Future<GameState>[] players = new Future[2];
 
-    /** Player game finished flags **/
-    private final boolean[] gameFinished = new boolean[2];
-
     /** Player 1's number**/
     private final int PLAYER1_NUMBER = 0;
     /** Player 2's number**/
     private final int PLAYER2_NUMBER = 1;
 
+    /** Times the phases of each merged frame. */
+    private final FrameProfiler profiler = new FrameProfiler("two player screen");
+
     /**
      * Constructor, establishes the properties of the screen.
      *
@@ -57,74 +62,83 @@ public class TwoPlayerScreen extends Screen {
         for (int playerNumber = 0; playerNumber < 2; playerNumber++) {
             this.gameSettings[playerNumber] = new GameSettings(gameSettings);
             this.gameStates[playerNumber] = new GameState(gameState);
-            gameFinished[playerNumber] = false;
+            this.pools[playerNumber] = new EntityPools();
         }
 
         this.wallet = wallet;
-        executor = Executors.newFixedThreadPool(2);
+        sessions = new SessionScheduler();
         this.returnCode = 1;
     }
 
     /**
-     * Starts the action.
+     * Starts the action. Each player plays their levels in their own
+     * session until they run out of lives.
      *
      * @return Next screen code.
+     * @throws IllegalStateException
+     *             If the game of a player failed.
      */
     public int run(){
+        // Own the game clock before the players start their own loops.
+        Core.getGameClock().acquire(this);
         try {
-            runGameScreen(PLAYER1_NUMBER);
-            runGameScreen(PLAYER2_NUMBER);
-        }
-        catch (Exception e) {
-            // TODO handle exception
-            e.printStackTrace();
+            for (int playerNumber = 0; playerNumber < 2; playerNumber++) {
+                final int player = playerNumber;
+                players[player] = sessions.start(gameStates[player],
+                        state -> nextGameScreen(player, state));
+            }
+            super.run();
+            profiler.dump(logger);
+
+            sessions.await();
+            for (int playerNumber = 0; playerNumber < 2; playerNumber++)
+                gameStates[playerNumber] = players[playerNumber].get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Two player game failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sessions.close();
         }
-        super.run();
         return returnCode;
     }
 
     /**
      * Draws the elements associated with the screen.
      */
-    private void draw() {
+    protected final void draw() {
+        long drawStart = profiler.start();
         drawManager.initDrawing(this);
+        long mergeStart = profiler.start();
         drawManager.mergeDrawing(this);
+        profiler.record(FrameProfiler.Phase.MERGE, mergeStart);
         drawManager.drawVerticalLine(this);
+        long completeStart = profiler.start();
         drawManager.completeDrawing(this);
+        profiler.record(FrameProfiler.Phase.COMPLETE_DRAWING, completeStart);
+        profiler.record(FrameProfiler.Phase.DRAW, drawStart);
     }
 
     /**
      * Updates the elements on screen and checks for events.
      */
     protected final void update() {
-        try {
-            if (players[PLAYER1_NUMBER].isDone()) {
-                gameStates[PLAYER1_NUMBER] = players[PLAYER1_NUMBER].get();
-                gameStates[PLAYER1_NUMBER] = new GameState(gameStates[PLAYER1_NUMBER], gameStates[PLAYER1_NUMBER].getLevel() + 1);
-                runGameScreen(PLAYER1_NUMBER);
-            }
-            if (players[PLAYER2_NUMBER].isDone()) {
-                gameStates[PLAYER2_NUMBER] = players[PLAYER2_NUMBER].get();
-                gameStates[PLAYER2_NUMBER] = new GameState(gameStates[PLAYER2_NUMBER], gameStates[PLAYER2_NUMBER].getLevel() + 1);
-                runGameScreen(PLAYER2_NUMBER);
-            }
-
-            if (gameFinished[PLAYER1_NUMBER] && gameFinished[PLAYER2_NUMBER]) {
-                isRunning = false;
-                executor.shutdown();
-            }
-
-            draw();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        long updateStart = profiler.start();
+        if (sessions.isFinished())
+            isRunning = false;
+        profiler.record(FrameProfiler.Phase.UPDATE, updateStart);
     }
     /**
      * Progression logic each games.
+     *
+     * @param playerNumber
+     *            Player whose next level is created.
+     * @param gameState
+     *            Game state of the player at the start of the level.
+     * @return Screen of the next level, or null once the player has no
+     *         lives left.
      */
-    private void runGameScreen(int playerNumber){
-        GameState gameState = playerNumber == 0 ? gameStates[PLAYER1_NUMBER] : gameStates[PLAYER2_NUMBER];
-
+    private GameScreen nextGameScreen(final int playerNumber, final GameState gameState){
         if (gameState.getLivesRemaining() > 0) {
             boolean bonusLife = gameState.getLevel()
                     % Core.EXTRA_LIFE_FRECUENCY == 0
@@ -138,12 +152,11 @@ public class TwoPlayerScreen extends Screen {
                 gameState.getLevel(),
                 Core.getLevelSetting()
             );
-            GameScreen gameScreen = new GameScreen(gameState, gameSettings[playerNumber],
-                    bonusLife, width / 2, height, fps / 2, wallet, playerNumber);
-            gameScreen.initialize();
-            players[playerNumber] = executor.submit(gameScreen);
+            return new GameScreen(gameState, gameSettings[playerNumber],
+                    bonusLife, width / 2, height, fps / 2, wallet, pools[playerNumber],
+                    playerNumber);
         }
-        else gameFinished[playerNumber] = true;
+        return null;
     }
 
     public GameState getWinnerGameState() {